@@ -0,0 +1,53 @@
+package org.tanzu.cfpulse.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.tanzu.cfpulse.cf.Page;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of materializing an application listing through {@code DefaultCloudFoundryOperations}.
+ * The listing cache TTL is zero so every call converts the full space summary.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ApplicationListBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int applications;
+
+    private BenchmarkServices uncached;
+    private BenchmarkServices cached;
+
+    @Setup
+    public void setUp() {
+        uncached = new BenchmarkServices(applications, Duration.ZERO, Duration.ZERO);
+        cached = new BenchmarkServices(applications, Duration.ZERO, Duration.ofHours(1));
+        cached.applicationService.applicationsList(null, null, null, null, null);
+    }
+
+    @Benchmark
+    public Page<?> materializeList() {
+        return uncached.applicationService.applicationsList(null, null, null, null, null);
+    }
+
+    @Benchmark
+    public Page<?> cachedList() {
+        return cached.applicationService.applicationsList(null, null, null, null, null);
+    }
+}
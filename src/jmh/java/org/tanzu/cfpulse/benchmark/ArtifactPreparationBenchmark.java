@@ -0,0 +1,126 @@
+package org.tanzu.cfpulse.benchmark;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.cloudfoundry.util.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.tanzu.cfpulse.cf.ArtifactFingerprintCache;
+import org.tanzu.cfpulse.cf.MappedArchive;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+
+/**
+ * Time to fingerprint and package push artifacts of 10, 100 and 500 MB, shaped like a Spring Boot
+ * fat jar: roughly half the bytes in stored nested jars, half in deflated classes. The
+ * {@code streamingHash} baseline inflates and hashes each entry on one thread through stream
+ * buffers, as the fingerprint cache originally did. Throughput is the artifact size over the
+ * reported time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ArtifactPreparationBenchmark {
+
+    @Param({"10", "100", "500"})
+    public int megabytes;
+
+    private Path directory;
+    private Path artifact;
+    private Path packaged;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("artifact-benchmark");
+        artifact = directory.resolve("app.jar");
+        packaged = directory.resolve("upload.zip");
+        writeArtifact(artifact, megabytes * 1024L * 1024L);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(packaged);
+        Files.deleteIfExists(artifact);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public List<ArtifactFingerprintCache.ArtifactEntry> streamingHash() throws IOException {
+        List<ArtifactFingerprintCache.ArtifactEntry> entries = new ArrayList<>();
+        try (ZipFile zipFile = ZipFile.builder().setPath(artifact).get()) {
+            for (ZipArchiveEntry entry : Collections.list(zipFile.getEntries())) {
+                try (InputStream in = zipFile.getInputStream(entry)) {
+                    entries.add(new ArtifactFingerprintCache.ArtifactEntry(entry.getName(), FileUtils.hash(in),
+                            (int) entry.getSize(), FileUtils.permissions(entry.getUnixMode())));
+                }
+            }
+        }
+        return entries;
+    }
+
+    @Benchmark
+    public List<ArtifactFingerprintCache.ArtifactEntry> mappedParallelHash() throws IOException {
+        try (MappedArchive archive = MappedArchive.open(artifact)) {
+            return archive.fingerprints();
+        }
+    }
+
+    @Benchmark
+    public long mappedPackage() throws IOException {
+        try (MappedArchive archive = MappedArchive.open(artifact)) {
+            archive.writeEntries(packaged, path -> true);
+        }
+        return Files.size(packaged);
+    }
+
+    private static void writeArtifact(Path path, long size) throws IOException {
+        Random random = new Random(42);
+        // Sixteen-letter text deflates to roughly half its size, much like compiled classes
+        byte[] text = new byte[4 * 1024 * 1024];
+        for (int i = 0; i < text.length; i++) {
+            text[i] = (byte) ('a' + random.nextInt(16));
+        }
+        try (ZipArchiveOutputStream out = new ZipArchiveOutputStream(path)) {
+            for (int i = 0; out.getBytesWritten() < size; i++) {
+                boolean nested = i % 16 == 0;
+                byte[] data = new byte[nested ? 1024 * 1024 : 64 * 1024];
+                if (nested) {
+                    random.nextBytes(data);
+                } else {
+                    System.arraycopy(text, random.nextInt(text.length - data.length), data, 0, data.length);
+                }
+                ZipArchiveEntry entry = new ZipArchiveEntry(nested
+                        ? "BOOT-INF/lib/library-" + i + ".jar"
+                        : "BOOT-INF/classes/Class" + i + ".class");
+                entry.setMethod(nested ? ZipEntry.STORED : ZipEntry.DEFLATED);
+                out.putArchiveEntry(entry);
+                out.write(data);
+                out.closeArchiveEntry();
+            }
+        }
+    }
+}
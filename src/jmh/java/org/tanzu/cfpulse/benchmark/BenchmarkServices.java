@@ -0,0 +1,77 @@
+package org.tanzu.cfpulse.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.cloudfoundry.client.CloudFoundryClient;
+import org.cloudfoundry.doppler.DopplerClient;
+import org.cloudfoundry.networking.NetworkingClient;
+import org.cloudfoundry.uaa.UaaClient;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.tanzu.cfpulse.cf.ArtifactFingerprintCache;
+import org.tanzu.cfpulse.cf.CfApiCallRecorder;
+import org.tanzu.cfpulse.cf.CfApplicationService;
+import org.tanzu.cfpulse.cf.CloudFoundryOperationsFactory;
+import org.tanzu.cfpulse.cf.FieldProjection;
+import org.tanzu.cfpulse.cf.IncrementalPush;
+import org.tanzu.cfpulse.cf.JobRegistry;
+import org.tanzu.cfpulse.cf.McpToolInvocationAspect;
+import org.tanzu.cfpulse.cf.NameResolver;
+import org.tanzu.cfpulse.cf.RollingDeployment;
+import org.tanzu.cfpulse.cf.SpaceListingCache;
+import org.tanzu.cfpulse.cf.ToolConcurrencyLimiter;
+import org.tanzu.cfpulse.cf.ToolConcurrencyProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Wires the real services to a {@link StubCloudFoundryClient} the same way the Spring context does.
+ */
+final class BenchmarkServices {
+
+    final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    final CloudFoundryOperationsFactory operationsFactory;
+    final SpaceListingCache listingCache;
+    final NameResolver nameResolver;
+    final JobRegistry jobRegistry;
+    final CfApplicationService applicationService;
+
+    BenchmarkServices(int applicationCount, Duration latency, Duration listingTtl) {
+        this(StubCloudFoundryClient.create(applicationCount, latency), listingTtl);
+    }
+
+    BenchmarkServices(CloudFoundryClient client, Duration listingTtl) {
+        this.operationsFactory = new CloudFoundryOperationsFactory(client,
+                StubCloudFoundryClient.stub(DopplerClient.class, Map.of()),
+                StubCloudFoundryClient.stub(UaaClient.class, Map.of()),
+                StubCloudFoundryClient.stub(NetworkingClient.class, Map.of()),
+                meterRegistry,
+                StubCloudFoundryClient.ORGANIZATION,
+                StubCloudFoundryClient.SPACE,
+                256,
+                Duration.ofMinutes(30));
+        this.listingCache = new SpaceListingCache(operationsFactory, meterRegistry, listingTtl, 1000, 100, 1000,
+                Duration.ofMinutes(15), 200);
+        this.nameResolver = new NameResolver(operationsFactory, meterRegistry, Duration.ofMinutes(10), 10000);
+        this.jobRegistry = new JobRegistry(meterRegistry, new ToolConcurrencyLimiter(
+                new ToolConcurrencyProperties(256, 256, Duration.ofSeconds(30), Map.of())), 16, 256, Duration.ofHours(1), 500);
+        this.applicationService = new CfApplicationService(operationsFactory, listingCache,
+                new FieldProjection(new ObjectMapper()), nameResolver,
+                new IncrementalPush(operationsFactory, nameResolver, new ArtifactFingerprintCache(meterRegistry, 64)),
+                jobRegistry, new RollingDeployment(operationsFactory, nameResolver, Duration.ofMinutes(15), Duration.ofMinutes(10)));
+    }
+
+    /**
+     * Proxy a tool service through the same aspect that wraps {@code @McpTool} methods at runtime
+     */
+    <T> T withToolAspect(T target, int concurrencyLimit) {
+        ToolConcurrencyLimiter limiter = new ToolConcurrencyLimiter(
+                new ToolConcurrencyProperties(concurrencyLimit, concurrencyLimit, Duration.ofSeconds(30), Map.of()));
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new McpToolInvocationAspect(limiter, new CfApiCallRecorder(meterRegistry), meterRegistry,
+                StubCloudFoundryClient.ORGANIZATION, StubCloudFoundryClient.SPACE));
+        return proxyFactory.getProxy();
+    }
+}
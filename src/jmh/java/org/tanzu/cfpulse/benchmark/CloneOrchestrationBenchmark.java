@@ -0,0 +1,110 @@
+package org.tanzu.cfpulse.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.tanzu.cfpulse.clone.ApplicationConfigService;
+import org.tanzu.cfpulse.clone.ApplicationDeploymentService;
+import org.tanzu.cfpulse.clone.BuildpackPlaceholderGenerator;
+import org.tanzu.cfpulse.clone.CfApplicationCloner;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end cost of the clone pipeline with every Cloud Foundry call replaced by a fixed delay,
+ * which isolates the orchestration overhead and placeholder preparation from the foundation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CloneOrchestrationBenchmark {
+
+    @Param({"0", "5"})
+    public int latencyMillis;
+
+    private BuildpackPlaceholderGenerator placeholderGenerator;
+    private CfApplicationCloner cloner;
+
+    @Setup
+    public void setUp() {
+        Duration latency = Duration.ofMillis(latencyMillis);
+        BenchmarkServices services = new BenchmarkServices(10, Duration.ZERO, Duration.ofSeconds(30));
+        ApplicationConfigService configService = new StubConfigService(services, latency);
+        ApplicationDeploymentService deploymentService = new StubDeploymentService(services, configService, latency);
+        placeholderGenerator = new BuildpackPlaceholderGenerator();
+        cloner = new CfApplicationCloner(services.operationsFactory, configService, placeholderGenerator,
+                deploymentService, services.listingCache, services.jobRegistry, 4, 8);
+    }
+
+    @TearDown
+    public void tearDown() {
+        placeholderGenerator.deleteArchives();
+    }
+
+    @Benchmark
+    public void cloneApp() {
+        cloner.cloneApp("app-0", "app-0-copy", null, null, null);
+    }
+
+    private static final class StubConfigService extends ApplicationConfigService {
+
+        private final Duration latency;
+
+        StubConfigService(BenchmarkServices services, Duration latency) {
+            super(services.operationsFactory, services.nameResolver);
+            this.latency = latency;
+        }
+
+        @Override
+        public Mono<AppConfig> getSourceAppConfig(String sourceApp, String organization, String space) {
+            return StubCloudFoundryClient.respond(
+                    new AppConfig(1024, 1024, 2, Map.of("JBP_CONFIG_OPEN_JDK_JRE", "{ jre: { version: 21.+ } }")),
+                    latency);
+        }
+
+        @Override
+        public Mono<String> getBuildpackInfo(String appName, String organization, String space) {
+            return StubCloudFoundryClient.respond("java_buildpack_offline", latency);
+        }
+    }
+
+    private static final class StubDeploymentService extends ApplicationDeploymentService {
+
+        private final Duration latency;
+
+        StubDeploymentService(BenchmarkServices services, ApplicationConfigService configService, Duration latency) {
+            super(services.operationsFactory, configService);
+            this.latency = latency;
+        }
+
+        @Override
+        public Mono<Void> deployPlaceholderWithSourceBuildpack(String appName, Path placeholderPath, String buildpack,
+                                                               String organization, String space,
+                                                               ApplicationConfigService.AppConfig config) {
+            return StubCloudFoundryClient.respond(Boolean.TRUE, latency).then();
+        }
+
+        @Override
+        public Mono<Void> copySourceWithBuildpackVerification(String sourceApp, String targetApp, String expectedBuildpack,
+                                                              String organization, String space,
+                                                              ApplicationConfigService.AppConfig config) {
+            return StubCloudFoundryClient.respond(Boolean.TRUE, latency).then();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package org.tanzu.cfpulse.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.tanzu.cfpulse.cf.CfApplicationService;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wall-clock time for a burst of concurrent tool calls, each on its own virtual thread as the
+ * servlet container dispatches them, against a foundation that answers every request after 50ms.
+ * Every call misses the listing cache, so the result reflects the concurrency limit rather than
+ * the cache: with {@code limit >= calls} the burst should finish in a small multiple of the latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ConcurrentToolCallBenchmark {
+
+    @Param({"512"})
+    public int calls;
+
+    @Param({"64", "512"})
+    public int limit;
+
+    private CfApplicationService applicationService;
+
+    @Setup
+    public void setUp() {
+        BenchmarkServices services = new BenchmarkServices(100, Duration.ofMillis(50), Duration.ZERO);
+        applicationService = services.withToolAspect(services.applicationService, limit);
+    }
+
+    @Benchmark
+    public int concurrentApplicationsList() throws InterruptedException, ExecutionException {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Integer>> results = new ArrayList<>(calls);
+            for (int i = 0; i < calls; i++) {
+                results.add(executor.submit(() -> applicationService.applicationsList(null, null, null, null, null).total()));
+            }
+            int total = 0;
+            for (Future<Integer> result : results) {
+                total += result.get();
+            }
+            return total;
+        }
+    }
+}
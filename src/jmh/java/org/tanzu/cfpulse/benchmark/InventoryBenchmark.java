@@ -0,0 +1,53 @@
+package org.tanzu.cfpulse.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springaicommunity.mcp.context.McpSyncRequestContext;
+import org.tanzu.cfpulse.cf.CfInventoryService;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wall-clock time for a foundation-wide inventory of 10 orgs with 20 spaces each, against a
+ * foundation that answers every request after 20ms. Each organization takes four v3 listings,
+ * so the time mostly depends on how many organizations are read at once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class InventoryBenchmark {
+
+    @Param({"1", "16"})
+    public int parallelism;
+
+    private CfInventoryService inventoryService;
+    private McpSyncRequestContext context;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        BenchmarkServices services = new BenchmarkServices(
+                StubCloudFoundryClient.create(10, 20, 25, Duration.ofMillis(20)), Duration.ofSeconds(30));
+        inventoryService = new CfInventoryService(services.operationsFactory, 16, 32);
+        context = StubCloudFoundryClient.stub(McpSyncRequestContext.class, Map.of("progress", args -> null));
+    }
+
+    @Benchmark
+    public CfInventoryService.FoundationInventory foundationInventory() {
+        return inventoryService.foundationInventory(null, null, parallelism, context);
+    }
+}
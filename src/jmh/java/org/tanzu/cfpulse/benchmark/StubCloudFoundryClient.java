@@ -0,0 +1,325 @@
+package org.tanzu.cfpulse.benchmark;
+
+import org.cloudfoundry.client.CloudFoundryClient;
+import org.cloudfoundry.client.v2.organizations.OrganizationEntity;
+import org.cloudfoundry.client.v2.organizations.Organizations;
+import org.cloudfoundry.client.v2.spaces.GetSpaceSummaryResponse;
+import org.cloudfoundry.client.v2.spaces.SpaceApplicationSummary;
+import org.cloudfoundry.client.v2.spaces.SpaceEntity;
+import org.cloudfoundry.client.v2.spaces.Spaces;
+import org.cloudfoundry.client.v3.BuildpackData;
+import org.cloudfoundry.client.v3.Lifecycle;
+import org.cloudfoundry.client.v3.LifecycleType;
+import org.cloudfoundry.client.v3.Metadata;
+import org.cloudfoundry.client.v3.Pagination;
+import org.cloudfoundry.client.v3.Relationship;
+import org.cloudfoundry.client.v3.ToOneRelationship;
+import org.cloudfoundry.client.v3.applications.ApplicationRelationships;
+import org.cloudfoundry.client.v3.applications.ApplicationResource;
+import org.cloudfoundry.client.v3.applications.ApplicationState;
+import org.cloudfoundry.client.v3.applications.ApplicationsV3;
+import org.cloudfoundry.client.v3.applications.ListApplicationsRequest;
+import org.cloudfoundry.client.v3.applications.ListApplicationsResponse;
+import org.cloudfoundry.client.v3.organizations.ListOrganizationsRequest;
+import org.cloudfoundry.client.v3.organizations.ListOrganizationsResponse;
+import org.cloudfoundry.client.v3.organizations.OrganizationResource;
+import org.cloudfoundry.client.v3.organizations.OrganizationsV3;
+import org.cloudfoundry.client.v3.processes.HealthCheck;
+import org.cloudfoundry.client.v3.processes.HealthCheckType;
+import org.cloudfoundry.client.v3.processes.ListProcessesRequest;
+import org.cloudfoundry.client.v3.processes.ListProcessesResponse;
+import org.cloudfoundry.client.v3.processes.ProcessRelationships;
+import org.cloudfoundry.client.v3.processes.ProcessResource;
+import org.cloudfoundry.client.v3.processes.Processes;
+import org.cloudfoundry.client.v3.routes.Application;
+import org.cloudfoundry.client.v3.routes.Destination;
+import org.cloudfoundry.client.v3.routes.ListRoutesRequest;
+import org.cloudfoundry.client.v3.routes.ListRoutesResponse;
+import org.cloudfoundry.client.v3.routes.RouteRelationships;
+import org.cloudfoundry.client.v3.routes.RouteResource;
+import org.cloudfoundry.client.v3.routes.RoutesV3;
+import org.cloudfoundry.client.v3.spaces.ListSpacesRequest;
+import org.cloudfoundry.client.v3.spaces.ListSpacesResponse;
+import org.cloudfoundry.client.v3.spaces.SpaceResource;
+import org.cloudfoundry.client.v3.spaces.SpacesV3;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * In-process {@link CloudFoundryClient} that answers the organization, space and space summary
+ * lookups and listings made by {@code DefaultCloudFoundryOperations}, and the organization-wide v3
+ * listings of the foundation inventory, from generated data after a configurable delay. Requests that are not stubbed fail fast so a benchmark never silently measures nothing.
+ */
+final class StubCloudFoundryClient {
+
+    static final String ORGANIZATION = "bench-org";
+    static final String SPACE = "bench-space";
+
+    private static final String CREATED_AT = "2024-01-01T00:00:00Z";
+
+    private StubCloudFoundryClient() {
+    }
+
+    static CloudFoundryClient create(int applicationCount, Duration latency) {
+        return create(1, 1, applicationCount, latency);
+    }
+
+    /**
+     * Stub a foundation of {@code organizationCount} orgs named {@code bench-org}, {@code bench-org-1}, ...
+     * each holding {@code spacesPerOrganization} spaces of {@code applicationsPerSpace} applications
+     */
+    static CloudFoundryClient create(int organizationCount, int spacesPerOrganization, int applicationsPerSpace,
+                                     Duration latency) {
+        OrganizationsV3 organizationsV3 = stub(OrganizationsV3.class, Map.of(
+                "list", args -> {
+                    List<String> requested = ((ListOrganizationsRequest) args[0]).getNames();
+                    List<String> names = requested.isEmpty()
+                            ? IntStream.range(0, organizationCount).mapToObj(StubCloudFoundryClient::organizationName).toList()
+                            : requested;
+                    return respond(ListOrganizationsResponse.builder()
+                            .pagination(singlePage(names.size()))
+                            .resources(names.stream()
+                                    .map(name -> OrganizationResource.builder()
+                                            .id(name + "-guid")
+                                            .name(name)
+                                            .createdAt(CREATED_AT)
+                                            .metadata(Metadata.builder().build())
+                                            .build())
+                                    .toList())
+                            .build(), latency);
+                }));
+
+        // Operations look spaces up by name; the inventory lists every space of an organization
+        SpacesV3 spacesV3 = stub(SpacesV3.class, Map.of(
+                "list", args -> {
+                    ListSpacesRequest request = (ListSpacesRequest) args[0];
+                    List<SpaceResource> spaces = request.getNames().isEmpty()
+                            ? IntStream.range(0, spacesPerOrganization)
+                                    .mapToObj(index -> spaceResource(spaceId(request.getOrganizationIds().get(0), index),
+                                            spaceName(index)))
+                                    .toList()
+                            : List.of(spaceResource(request.getNames().get(0) + "-guid", request.getNames().get(0)));
+                    return respond(ListSpacesResponse.builder()
+                            .pagination(singlePage(spaces.size()))
+                            .resources(spaces)
+                            .build(), latency);
+                }));
+
+        ApplicationsV3 applicationsV3 = stub(ApplicationsV3.class, Map.of(
+                "list", args -> {
+                    String organizationId = ((ListApplicationsRequest) args[0])
+                            .getOrganizationIds().get(0);
+                    List<ApplicationResource> applications = applicationIds(organizationId, spacesPerOrganization, applicationsPerSpace)
+                            .map(id -> ApplicationResource.builder()
+                                    .id(id)
+                                    .name(id.substring(id.lastIndexOf('/') + 1))
+                                    .state(ApplicationState.STARTED)
+                                    .createdAt(CREATED_AT)
+                                    .metadata(Metadata.builder().build())
+                                    .lifecycle(Lifecycle.builder()
+                                            .type(LifecycleType.BUILDPACK)
+                                            .data(BuildpackData.builder().build())
+                                            .build())
+                                    .relationships(ApplicationRelationships.builder()
+                                            .space(toOne(id.substring(0, id.lastIndexOf('/'))))
+                                            .build())
+                                    .build())
+                            .toList();
+                    return respond(ListApplicationsResponse.builder()
+                            .pagination(singlePage(applications.size()))
+                            .resources(applications)
+                            .build(), latency);
+                }));
+
+        Processes processes = stub(Processes.class, Map.of(
+                "list", args -> {
+                    String organizationId = ((ListProcessesRequest) args[0])
+                            .getOrganizationIds().get(0);
+                    List<ProcessResource> web = applicationIds(organizationId, spacesPerOrganization, applicationsPerSpace)
+                            .map(id -> ProcessResource.builder()
+                                    .id(id + "-web")
+                                    .type("web")
+                                    .command("")
+                                    .instances(2)
+                                    .memoryInMb(1024)
+                                    .diskInMb(1024)
+                                    .createdAt(CREATED_AT)
+                                    .metadata(Metadata.builder().build())
+                                    .healthCheck(HealthCheck.builder()
+                                            .type(HealthCheckType.PORT)
+                                            .build())
+                                    .relationships(ProcessRelationships.builder().app(toOne(id)).build())
+                                    .build())
+                            .toList();
+                    return respond(ListProcessesResponse.builder()
+                            .pagination(singlePage(web.size()))
+                            .resources(web)
+                            .build(), latency);
+                }));
+
+        RoutesV3 routesV3 = stub(RoutesV3.class, Map.of(
+                "list", args -> {
+                    String organizationId = ((ListRoutesRequest) args[0])
+                            .getOrganizationIds().get(0);
+                    List<RouteResource> routes = applicationIds(organizationId, spacesPerOrganization, applicationsPerSpace)
+                            .map(id -> RouteResource.builder()
+                                    .id(id + "-route")
+                                    .host(id.substring(id.lastIndexOf('/') + 1))
+                                    .path("")
+                                    .url(id.substring(id.lastIndexOf('/') + 1) + ".apps.example.com")
+                                    .createdAt(CREATED_AT)
+                                    .metadata(Metadata.builder().build())
+                                    .relationships(RouteRelationships.builder()
+                                            .space(toOne(id.substring(0, id.lastIndexOf('/'))))
+                                            .domain(toOne("apps.example.com-guid"))
+                                            .build())
+                                    .destination(Destination.builder()
+                                            .application(Application.builder().applicationId(id).build())
+                                            .build())
+                                    .build())
+                            .toList();
+                    return respond(ListRoutesResponse.builder()
+                            .pagination(singlePage(routes.size()))
+                            .resources(routes)
+                            .build(), latency);
+                }));
+
+        org.cloudfoundry.client.v2.organizations.ListOrganizationsResponse organizationsV2 =
+                org.cloudfoundry.client.v2.organizations.ListOrganizationsResponse.builder()
+                        .totalPages(1)
+                        .totalResults(organizationCount)
+                        .resources(IntStream.range(0, organizationCount)
+                                .mapToObj(StubCloudFoundryClient::organizationName)
+                                .map(name -> org.cloudfoundry.client.v2.organizations.OrganizationResource.builder()
+                                        .metadata(resourceMetadata(name + "-guid"))
+                                        .entity(OrganizationEntity.builder().name(name).build())
+                                        .build())
+                                .toList())
+                        .build();
+        Organizations organizations = stub(Organizations.class, Map.of(
+                "list", args -> respond(organizationsV2, latency)));
+
+        GetSpaceSummaryResponse summary = GetSpaceSummaryResponse.builder()
+                .id(SPACE + "-guid")
+                .name(SPACE)
+                .applications(IntStream.range(0, applicationsPerSpace)
+                        .mapToObj(StubCloudFoundryClient::application)
+                        .toList())
+                .build();
+        Spaces spaces = stub(Spaces.class, Map.of(
+                "getSummary", args -> respond(summary, latency),
+                "list", args -> {
+                    String organizationId = ((org.cloudfoundry.client.v2.spaces.ListSpacesRequest) args[0])
+                            .getOrganizationIds().get(0);
+                    List<String> names = IntStream.range(0, spacesPerOrganization)
+                            .mapToObj(StubCloudFoundryClient::spaceName)
+                            .toList();
+                    return respond(org.cloudfoundry.client.v2.spaces.ListSpacesResponse.builder()
+                            .totalPages(1)
+                            .totalResults(names.size())
+                            .resources(names.stream()
+                                    .map(name -> org.cloudfoundry.client.v2.spaces.SpaceResource.builder()
+                                            .metadata(resourceMetadata(name + "-guid"))
+                                            .entity(SpaceEntity.builder().name(name).organizationId(organizationId).build())
+                                            .build())
+                                    .toList())
+                            .build(), latency);
+                }));
+
+        return stub(CloudFoundryClient.class, Map.of(
+                "organizationsV3", args -> organizationsV3,
+                "organizations", args -> organizations,
+                "spacesV3", args -> spacesV3,
+                "spaces", args -> spaces,
+                "applicationsV3", args -> applicationsV3,
+                "processes", args -> processes,
+                "routesV3", args -> routesV3));
+    }
+
+    static String organizationName(int index) {
+        return index == 0 ? ORGANIZATION : ORGANIZATION + "-" + index;
+    }
+
+    static String spaceName(int index) {
+        return index == 0 ? SPACE : SPACE + "-" + index;
+    }
+
+    private static String spaceId(String organizationId, int index) {
+        return organizationId + "/" + spaceName(index) + "-guid";
+    }
+
+    /**
+     * IDs of the applications of an organization, each prefixed with the ID of its space
+     */
+    private static Stream<String> applicationIds(String organizationId, int spacesPerOrganization,
+                                                                  int applicationsPerSpace) {
+        return IntStream.range(0, spacesPerOrganization)
+                .mapToObj(space -> spaceId(organizationId, space))
+                .flatMap(spaceId -> IntStream.range(0, applicationsPerSpace).mapToObj(app -> spaceId + "/app-" + app));
+    }
+
+    private static SpaceResource spaceResource(String id, String name) {
+        return SpaceResource.builder()
+                .id(id)
+                .name(name)
+                .createdAt(CREATED_AT)
+                .build();
+    }
+
+    private static ToOneRelationship toOne(String id) {
+        return ToOneRelationship.builder().data(Relationship.builder().id(id).build()).build();
+    }
+
+    /**
+     * Create a proxy for {@code type} that answers the named methods and rejects everything else
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer != null) {
+                return answer.apply(args);
+            }
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> type.getSimpleName() + " stub";
+                };
+            }
+            throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName() + " is not stubbed");
+        });
+    }
+
+    static <T> Mono<T> respond(T response, Duration latency) {
+        return latency.isZero() ? Mono.just(response) : Mono.delay(latency).thenReturn(response);
+    }
+
+    private static Pagination singlePage(int results) {
+        return Pagination.builder().totalPages(1).totalResults(results).build();
+    }
+
+    private static org.cloudfoundry.client.v2.Metadata resourceMetadata(String id) {
+        return org.cloudfoundry.client.v2.Metadata.builder().id(id).createdAt(CREATED_AT).build();
+    }
+
+    private static SpaceApplicationSummary application(int index) {
+        return SpaceApplicationSummary.builder()
+                .id("app-" + index + "-guid")
+                .name("app-" + index)
+                .diskQuota(1024)
+                .instances(2)
+                .memory(1024)
+                .runningInstances(2)
+                .state("STARTED")
+                .urls(List.of("app-" + index + ".apps.example.com"))
+                .build();
+    }
+}
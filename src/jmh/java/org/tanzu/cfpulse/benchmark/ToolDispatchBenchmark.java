@@ -0,0 +1,68 @@
+package org.tanzu.cfpulse.benchmark;
+
+import org.cloudfoundry.operations.CloudFoundryOperations;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.tanzu.cfpulse.cf.CfApplicationService;
+import org.tanzu.cfpulse.cf.Page;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of dispatching a tool call and of resolving a {@link CloudFoundryOperations} context.
+ * The listing cache is warm, so the tool benchmarks measure the dispatch path rather than the API.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ToolDispatchBenchmark {
+
+    private BenchmarkServices services;
+    private CfApplicationService proxiedApplicationService;
+
+    @Setup
+    public void setUp() {
+        services = new BenchmarkServices(10, Duration.ZERO, Duration.ofHours(1));
+        proxiedApplicationService = services.withToolAspect(services.applicationService, 1024);
+        services.applicationService.applicationsList(null, null, null, null, null);
+        services.operationsFactory.getOperations(StubCloudFoundryClient.ORGANIZATION, "other-space");
+    }
+
+    @Benchmark
+    public Page<?> directToolCall() {
+        return services.applicationService.applicationsList(null, null, null, null, null);
+    }
+
+    @Benchmark
+    public Page<?> toolCallThroughAspect() {
+        return proxiedApplicationService.applicationsList(null, null, null, null, null);
+    }
+
+    @Benchmark
+    public CloudFoundryOperations defaultOperationsLookup() {
+        return services.operationsFactory.getOperations(null, null);
+    }
+
+    @Benchmark
+    public CloudFoundryOperations cachedOperationsLookup() {
+        return services.operationsFactory.getOperations(StubCloudFoundryClient.ORGANIZATION, "other-space");
+    }
+
+    @Benchmark
+    public CloudFoundryOperations operationsCreation() {
+        services.operationsFactory.invalidate(StubCloudFoundryClient.ORGANIZATION, "new-space");
+        return services.operationsFactory.getOperations(StubCloudFoundryClient.ORGANIZATION, "new-space");
+    }
+}
@@ -0,0 +1,78 @@
+package org.tanzu.cfpulse.cf;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * SHA-1 fingerprints of the entries of push artifacts, in the form the resource match API expects.
+ * Fingerprints are cached by artifact path and only recomputed when the file's size or modification
+ * time changes, so pushing an unchanged jar again costs a stat rather than a full read.
+ */
+@Component
+public class ArtifactFingerprintCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArtifactFingerprintCache.class);
+
+    private record CachedFingerprints(long size, FileTime modified, List<ArtifactEntry> entries) {}
+
+    private final Cache<Path, CachedFingerprints> cache;
+
+    public ArtifactFingerprintCache(MeterRegistry meterRegistry,
+                                    @Value("${cf.cache.artifacts.max-size:64}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "cf.artifacts");
+    }
+
+    /**
+     * Return the fingerprints of every file entry in the archive at {@code artifact}
+     */
+    public List<ArtifactEntry> fingerprints(Path artifact) throws IOException {
+        Path key = artifact.toAbsolutePath().normalize();
+        BasicFileAttributes attributes = Files.readAttributes(key, BasicFileAttributes.class);
+        CachedFingerprints cached = cache.getIfPresent(key);
+        if (cached != null && cached.size() == attributes.size()
+                && cached.modified().equals(attributes.lastModifiedTime())) {
+            return cached.entries();
+        }
+
+        long start = System.nanoTime();
+        List<ArtifactEntry> entries = hash(key);
+        cache.put(key, new CachedFingerprints(attributes.size(), attributes.lastModifiedTime(), entries));
+        logger.info("Fingerprinted {} entries of {} in {}ms", entries.size(), key,
+                Duration.ofNanos(System.nanoTime() - start).toMillis());
+        return entries;
+    }
+
+    private static List<ArtifactEntry> hash(Path artifact) throws IOException {
+        try (MappedArchive archive = MappedArchive.open(artifact)) {
+            return archive.fingerprints();
+        }
+    }
+
+    /**
+     * One file inside a push artifact
+     *
+     * @param path entry name within the archive
+     * @param hash hex SHA-1 of the entry's uncompressed content
+     * @param size uncompressed size in bytes
+     * @param mode octal file permissions
+     */
+    public record ArtifactEntry(String path, String hash, int size, String mode) {}
+}
@@ -0,0 +1,149 @@
+package org.tanzu.cfpulse.cf;
+
+import io.micrometer.context.ContextRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.util.AttributeKey;
+import org.springframework.stereotype.Component;
+import reactor.netty.Connection;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientInfos;
+import reactor.netty.http.client.HttpClientRequest;
+import reactor.netty.http.client.HttpClientResponse;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Records every HTTP request the Cloud Foundry clients make. Each request is timed globally under
+ * {@code cf.api.requests}, and is also attributed to the tool invocation that caused it. The
+ * invocation travels from the tool thread to the Netty event loop in the Reactor context, which
+ * automatic context propagation populates from {@link #CURRENT} when the tool blocks.
+ */
+@Component
+public class CfApiCallRecorder {
+
+    static final String CONTEXT_KEY = "cf.tool.invocation";
+
+    private static final ThreadLocal<ToolInvocation> CURRENT = new ThreadLocal<>();
+    private static final AttributeKey<Long> REQUEST_START = AttributeKey.valueOf("cf.api.request.start");
+    private static final Pattern GUID = Pattern.compile(
+            "[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+
+    private final MeterRegistry meterRegistry;
+
+    public CfApiCallRecorder(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        ContextRegistry.getInstance().registerThreadLocalAccessor(CONTEXT_KEY, CURRENT);
+    }
+
+    /**
+     * Add request accounting to the HTTP client shared by all Cloud Foundry clients
+     */
+    public HttpClient instrument(HttpClient httpClient) {
+        return httpClient
+                .doOnRequest(this::onRequest)
+                .doOnResponse(this::onResponse)
+                .doOnRequestError(this::onRequestError)
+                .doOnResponseError((response, error) -> recordError(response, error));
+    }
+
+    /**
+     * Make {@code invocation} current on this thread until the returned scope is closed
+     */
+    public Scope open(ToolInvocation invocation) {
+        ToolInvocation previous = CURRENT.get();
+        CURRENT.set(invocation);
+        return () -> {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        };
+    }
+
+    private void onRequest(HttpClientRequest request, Connection connection) {
+        connection.channel().attr(REQUEST_START).set(System.nanoTime());
+        request.currentContextView().<ToolInvocation>getOrEmpty(CONTEXT_KEY)
+                .ifPresent(ToolInvocation::recordCall);
+    }
+
+    private void onResponse(HttpClientResponse response, Connection connection) {
+        Long start = connection.channel().attr(REQUEST_START).getAndSet(null);
+        if (start == null) {
+            return;
+        }
+        long elapsed = System.nanoTime() - start;
+        requestTimer(response, String.valueOf(response.status().code()))
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        response.currentContextView().<ToolInvocation>getOrEmpty(CONTEXT_KEY)
+                .ifPresent(invocation -> invocation.recordTime(elapsed));
+    }
+
+    private void onRequestError(HttpClientRequest request, Throwable error) {
+        // The request never reached the wire, so onRequest did not attribute it
+        request.currentContextView().<ToolInvocation>getOrEmpty(CONTEXT_KEY)
+                .ifPresent(ToolInvocation::recordCall);
+        recordError(request, error);
+    }
+
+    private void recordError(HttpClientInfos infos, Throwable error) {
+        meterRegistry.counter("cf.api.errors",
+                        "method", infos.method().name(),
+                        "uri", uriTemplate(infos),
+                        "exception", error.getClass().getSimpleName())
+                .increment();
+    }
+
+    private Timer requestTimer(HttpClientInfos infos, String status) {
+        return Timer.builder("cf.api.requests")
+                .description("HTTP requests made to the Cloud Foundry APIs")
+                .tag("method", infos.method().name())
+                .tag("uri", uriTemplate(infos))
+                .tag("status", status)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static String uriTemplate(HttpClientInfos infos) {
+        return GUID.matcher(infos.fullPath()).replaceAll("{guid}");
+    }
+
+    /**
+     * Restores the previously current invocation when closed
+     */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * Upstream Cloud Foundry API usage accumulated by a single tool call
+     */
+    public static final class ToolInvocation {
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicLong nanos = new AtomicLong();
+
+        public int calls() {
+            return calls.get();
+        }
+
+        public Duration time() {
+            return Duration.ofNanos(nanos.get());
+        }
+
+        private void recordCall() {
+            calls.incrementAndGet();
+        }
+
+        private void recordTime(long elapsedNanos) {
+            nanos.addAndGet(elapsedNanos);
+        }
+    }
+}
@@ -4,9 +4,10 @@ import org.cloudfoundry.operations.applications.*;
 import org.springaicommunity.mcp.annotation.McpTool;
 import org.springaicommunity.mcp.annotation.McpToolParam;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
 import java.nio.file.Paths;
-import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 public class CfApplicationService extends CfBaseService {
@@ -18,63 +19,123 @@ public class CfApplicationService extends CfBaseService {
     private static final String START_APPLICATION = "Start a Cloud Foundry application. Organization and space parameters are optional - if not provided or null, the configured default org/space will be used automatically.";
     private static final String STOP_APPLICATION = "Stop a running Cloud Foundry application. Organization and space parameters are optional - if not provided or null, the configured default org/space will be used automatically.";
     private static final String RESTART_APPLICATION = "Restart a running Cloud Foundry application. Organization and space parameters are optional - if not provided or null, the configured default org/space will be used automatically.";
+    private static final String RESTAGE_APPLICATION = "Restage a Cloud Foundry application, rebuilding its droplet from the most recently uploaded bits with the latest buildpack, then restart it. Organization and space parameters are optional - if not provided or null, the configured default org/space will be used automatically.";
     private static final String DELETE_APPLICATION = "Delete a Cloud Foundry application. Organization and space parameters are optional - if not provided or null, the configured default org/space will be used automatically.";
     
     private static final String PATH_PARAM = "Fully qualified directory pathname to the compiled JAR file for the application";
     private static final String NO_START_PARAM = "Set this flag to true if you want to explicitly prevent the app from starting after being pushed.";
+    private static final String ROLLING_PARAM = "Set to true to replace instances gradually through a rolling deployment, so the application keeps serving at full capacity. New instances must be healthy before old ones are stopped, and the deployment is cancelled if they crash. Optional - defaults to false, which stops every instance before starting new ones.";
     private static final String INSTANCES_PARAM = "The new number of instances of the Cloud Foundry application";
     private static final String MEMORY_PARAM = "The memory limit, in megabytes, of the Cloud Foundry application";
     private static final String DISK_PARAM = "The disk size, in megabytes, of the Cloud Foundry application";
 
-    public CfApplicationService(CloudFoundryOperationsFactory operationsFactory) {
+    private static final String BUILDPACK = "java_buildpack_offline";
+
+    private static final String SUMMARY_FIELDS_PARAM = FIELDS_PARAM + "id, name, requestedState, instances, runningInstances, memoryLimit, diskQuota, urls";
+    private static final String DETAIL_FIELDS_PARAM = FIELDS_PARAM + "id, name, requestedState, instances, runningInstances, memoryLimit, diskQuota, urls, buildpacks, stack, lastUploaded, instanceDetails";
+
+    private final SpaceListingCache listingCache;
+    private final FieldProjection fieldProjection;
+    private final NameResolver nameResolver;
+    private final IncrementalPush incrementalPush;
+    private final JobRegistry jobRegistry;
+    private final RollingDeployment rollingDeployment;
+
+    public CfApplicationService(CloudFoundryOperationsFactory operationsFactory, SpaceListingCache listingCache,
+                                FieldProjection fieldProjection, NameResolver nameResolver,
+                                IncrementalPush incrementalPush, JobRegistry jobRegistry,
+                                RollingDeployment rollingDeployment) {
         super(operationsFactory);
+        this.listingCache = listingCache;
+        this.fieldProjection = fieldProjection;
+        this.nameResolver = nameResolver;
+        this.incrementalPush = incrementalPush;
+        this.jobRegistry = jobRegistry;
+        this.rollingDeployment = rollingDeployment;
     }
 
-    @McpTool(description = APPLICATION_LIST)
-    public List<ApplicationSummary> applicationsList(
+    @McpTool(description = APPLICATION_LIST + PAGINATED)
+    public Page<?> applicationsList(
             @McpToolParam(description = ORG_PARAM, required = false) String organization,
-            @McpToolParam(description = SPACE_PARAM, required = false) String space) {
-        return getOperations(organization, space).applications().list().collectList().block();
+            @McpToolParam(description = SPACE_PARAM, required = false) String space,
+            @McpToolParam(description = PAGE_SIZE_PARAM, required = false) Integer pageSize,
+            @McpToolParam(description = CURSOR_PARAM, required = false) String cursor,
+            @McpToolParam(description = SUMMARY_FIELDS_PARAM, required = false) String fields) {
+        Page<ApplicationSummary> page = listingCache.page(SpaceListingCache.Listing.APPLICATIONS, organization, space,
+                cursor, pageSize, () -> getOperations(organization, space).applications().list().collectList().block());
+        return fieldProjection.project(page, fields);
     }
 
     @McpTool(description = APPLICATION_DETAILS)
-    public ApplicationDetail applicationDetails(
+    public Object applicationDetails(
             @McpToolParam(description = NAME_PARAM) String applicationName,
             @McpToolParam(description = ORG_PARAM, required = false) String organization,
-            @McpToolParam(description = SPACE_PARAM, required = false) String space) {
+            @McpToolParam(description = SPACE_PARAM, required = false) String space,
+            @McpToolParam(description = DETAIL_FIELDS_PARAM, required = false) String fields) {
         GetApplicationRequest request = GetApplicationRequest.builder().name(applicationName).build();
-        return getOperations(organization, space).applications().get(request).block();
+        ApplicationDetail detail = getOperations(organization, space).applications().get(request).block();
+        return fieldProjection.project(detail, fields);
     }
 
-    @McpTool(description = PUSH_APPLICATION)
-    public void pushApplication(@McpToolParam(description = NAME_PARAM) String applicationName,
-                                @McpToolParam(description = PATH_PARAM) String path,
-                                @McpToolParam(description = NO_START_PARAM, required = false) Boolean noStart,
-                                @McpToolParam(description = MEMORY_PARAM, required = false) Integer memory,
-                                @McpToolParam(description = DISK_PARAM, required = false) Integer disk,
-                                @McpToolParam(description = ORG_PARAM, required = false) String organization,
-                                @McpToolParam(description = SPACE_PARAM, required = false) String space) {
+    @McpTool(description = PUSH_APPLICATION + ASYNC)
+    public JobRegistry.JobStatus pushApplication(@McpToolParam(description = NAME_PARAM) String applicationName,
+                                                 @McpToolParam(description = PATH_PARAM) String path,
+                                                 @McpToolParam(description = NO_START_PARAM, required = false) Boolean noStart,
+                                                 @McpToolParam(description = MEMORY_PARAM, required = false) Integer memory,
+                                                 @McpToolParam(description = DISK_PARAM, required = false) Integer disk,
+                                                 @McpToolParam(description = ORG_PARAM, required = false) String organization,
+                                                 @McpToolParam(description = SPACE_PARAM, required = false) String space,
+                                                 @McpToolParam(description = ROLLING_PARAM, required = false) Boolean rolling,
+                                                 @McpToolParam(description = ASYNC_PARAM, required = false) Boolean async) {
+        JobRegistry.Work work = stage -> {
+            push(applicationName, path, noStart, memory, disk, organization, space, Boolean.TRUE.equals(rolling), stage);
+            return null;
+        };
+        return Boolean.TRUE.equals(async)
+                ? jobRegistry.submit(getClass(), "pushApplication", applicationName, work)
+                : jobRegistry.run("pushApplication", applicationName, work);
+    }
+
+    private void push(String applicationName, String path, Boolean noStart, Integer memory, Integer disk,
+                      String organization, String space, boolean rolling, Consumer<String> stage) {
         PushApplicationRequest request = PushApplicationRequest.builder().
                 name(applicationName).
                 path(Paths.get(path)).
                 noStart(true).
-                buildpack("java_buildpack_offline").
+                buildpack(BUILDPACK).
                 memory(memory).
                 diskQuota(disk).
                 build();
+        boolean start = noStart == null || !noStart;
         var operations = getOperations(organization, space);
-        operations.applications().push(request).block();
-
-        SetEnvironmentVariableApplicationRequest envRequest = SetEnvironmentVariableApplicationRequest.builder().
-                name(applicationName).variableName("JBP_CONFIG_OPEN_JDK_JRE").variableValue("{ jre: { version: 17.+ } }").
-                build();
-        operations.applications().setEnvironmentVariable(envRequest).block();
+        try {
+            stage.accept("UPLOADING");
+            // Existing applications only upload the files the foundation does not already have. A rolling
+            // push leaves the old instances running until the new droplet has been deployed. Only an
+            // application that does not exist yet goes through the full push.
+            Boolean pushed = incrementalPush.pushExisting(applicationName, request.getPath(), BUILDPACK,
+                    memory, disk, organization, space, rolling && start).block();
+            if (!Boolean.TRUE.equals(pushed)) {
+                operations.applications().push(request).block();
+            }
 
-        if (noStart == null || !noStart) {
-            StartApplicationRequest startApplicationRequest = StartApplicationRequest.builder().
-                    name(applicationName).
+            stage.accept("CONFIGURING");
+            SetEnvironmentVariableApplicationRequest envRequest = SetEnvironmentVariableApplicationRequest.builder().
+                    name(applicationName).variableName("JBP_CONFIG_OPEN_JDK_JRE").variableValue("{ jre: { version: 17.+ } }").
                     build();
-            operations.applications().start(startApplicationRequest).block();
+            operations.applications().setEnvironmentVariable(envRequest).block();
+
+            if (start && rolling && Boolean.TRUE.equals(pushed)) {
+                rollingDeployment.restage(applicationName, organization, space, stage).block();
+            } else if (start) {
+                stage.accept("STARTING");
+                StartApplicationRequest startApplicationRequest = StartApplicationRequest.builder().
+                        name(applicationName).
+                        build();
+                operations.applications().start(startApplicationRequest).block();
+            }
+        } finally {
+            listingCache.invalidate(organization, space);
         }
     }
 
@@ -91,7 +152,9 @@ public class CfApplicationService extends CfBaseService {
                 diskLimit(disk).
                 memoryLimit(memory).
                 build();
-        getOperations(organization, space).applications().scale(scaleApplicationRequest).block();
+        getOperations(organization, space).applications().scale(scaleApplicationRequest)
+                .doOnTerminate(() -> listingCache.invalidate(organization, space))
+                .block();
     }
 
     @McpTool(description = START_APPLICATION)
@@ -101,7 +164,9 @@ public class CfApplicationService extends CfBaseService {
         StartApplicationRequest startApplicationRequest = StartApplicationRequest.builder().
                 name(applicationName).
                 build();
-        getOperations(organization, space).applications().start(startApplicationRequest).block();
+        getOperations(organization, space).applications().start(startApplicationRequest)
+                .doOnTerminate(() -> listingCache.invalidate(organization, space))
+                .block();
     }
 
     @McpTool(description = STOP_APPLICATION)
@@ -111,15 +176,57 @@ public class CfApplicationService extends CfBaseService {
         StopApplicationRequest stopApplicationRequest = StopApplicationRequest.builder().
                 name(applicationName).
                 build();
-        getOperations(organization, space).applications().stop(stopApplicationRequest).block();
+        getOperations(organization, space).applications().stop(stopApplicationRequest)
+                .doOnTerminate(() -> listingCache.invalidate(organization, space))
+                .block();
+    }
+
+    @McpTool(description = RESTART_APPLICATION + ASYNC)
+    public JobRegistry.JobStatus restartApplication(@McpToolParam(description = NAME_PARAM) String applicationName,
+                                                    @McpToolParam(description = ORG_PARAM, required = false) String organization,
+                                                    @McpToolParam(description = SPACE_PARAM, required = false) String space,
+                                                    @McpToolParam(description = ROLLING_PARAM, required = false) Boolean rolling,
+                                                    @McpToolParam(description = ASYNC_PARAM, required = false) Boolean async) {
+        JobRegistry.Work work = stage -> {
+            Mono<Void> restart;
+            if (Boolean.TRUE.equals(rolling)) {
+                restart = rollingDeployment.restart(applicationName, organization, space, stage);
+            } else {
+                stage.accept("RESTARTING");
+                restart = getOperations(organization, space).applications()
+                        .restart(RestartApplicationRequest.builder().name(applicationName).build());
+            }
+            restart.doOnTerminate(() -> listingCache.invalidate(organization, space))
+                    .block();
+            return null;
+        };
+        return Boolean.TRUE.equals(async)
+                ? jobRegistry.submit(getClass(), "restartApplication", applicationName, work)
+                : jobRegistry.run("restartApplication", applicationName, work);
     }
 
-    @McpTool(description = RESTART_APPLICATION)
-    public void restartApplication(@McpToolParam(description = NAME_PARAM) String applicationName,
-                                  @McpToolParam(description = ORG_PARAM, required = false) String organization,
-                                  @McpToolParam(description = SPACE_PARAM, required = false) String space) {
-        RestartApplicationRequest request = RestartApplicationRequest.builder().name(applicationName).build();
-        getOperations(organization, space).applications().restart(request).block();
+    @McpTool(description = RESTAGE_APPLICATION + ASYNC)
+    public JobRegistry.JobStatus restageApplication(@McpToolParam(description = NAME_PARAM) String applicationName,
+                                                    @McpToolParam(description = ORG_PARAM, required = false) String organization,
+                                                    @McpToolParam(description = SPACE_PARAM, required = false) String space,
+                                                    @McpToolParam(description = ROLLING_PARAM, required = false) Boolean rolling,
+                                                    @McpToolParam(description = ASYNC_PARAM, required = false) Boolean async) {
+        JobRegistry.Work work = stage -> {
+            Mono<Void> restage;
+            if (Boolean.TRUE.equals(rolling)) {
+                restage = rollingDeployment.restage(applicationName, organization, space, stage);
+            } else {
+                stage.accept("STAGING");
+                restage = getOperations(organization, space).applications()
+                        .restage(RestageApplicationRequest.builder().name(applicationName).build());
+            }
+            restage.doOnTerminate(() -> listingCache.invalidate(organization, space))
+                    .block();
+            return null;
+        };
+        return Boolean.TRUE.equals(async)
+                ? jobRegistry.submit(getClass(), "restageApplication", applicationName, work)
+                : jobRegistry.run("restageApplication", applicationName, work);
     }
 
     @McpTool(description = DELETE_APPLICATION)
@@ -129,6 +236,11 @@ public class CfApplicationService extends CfBaseService {
         DeleteApplicationRequest deleteApplicationRequest = DeleteApplicationRequest.builder().
                 name(applicationName).
                 build();
-        getOperations(organization, space).applications().delete(deleteApplicationRequest).block();
+        getOperations(organization, space).applications().delete(deleteApplicationRequest)
+                .doOnTerminate(() -> {
+                    listingCache.invalidate(organization, space);
+                    nameResolver.invalidateApplication(organization, space, applicationName);
+                })
+                .block();
     }
-}
\ No newline at end of file
+}
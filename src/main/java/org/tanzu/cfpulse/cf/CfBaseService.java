@@ -9,6 +9,12 @@ public abstract class CfBaseService {
     protected static final String ORG_PARAM = "Name of the Cloud Foundry organization. Optional - can be null or omitted to use the configured default organization.";
     protected static final String SPACE_PARAM = "Name of the Cloud Foundry space. Optional - can be null or omitted to use the configured default space.";
     protected static final String NAME_PARAM = "Name of the Cloud Foundry application";
+    protected static final String PAGE_SIZE_PARAM = "Maximum number of items to return in this page. Optional - defaults to 100.";
+    protected static final String CURSOR_PARAM = "The nextCursor value returned by the previous page. Optional - omit to fetch the first page.";
+    protected static final String FIELDS_PARAM = "Comma-separated list of fields to return. Optional - omit to return every field. Request only the fields you need to keep responses small. Available fields: ";
+    protected static final String PAGINATED = " Results are paginated: when nextCursor is not null, call again with that cursor to fetch the next page.";
+    protected static final String ASYNC_PARAM = "Set to true to return a job id immediately instead of waiting for the operation to finish. Optional - defaults to false.";
+    protected static final String ASYNC = " Returns the job for the call. With async=true the job is returned as soon as it is queued; poll jobStatus with its id to follow the stage, elapsed time and result.";
 
     public CfBaseService(CloudFoundryOperationsFactory operationsFactory) {
         this.operationsFactory = operationsFactory;
@@ -20,4 +26,12 @@ public abstract class CfBaseService {
         }
         return operationsFactory.getOperations(organization, space);
     }
+
+    protected String resolveOrganization(String organization) {
+        return organization != null ? organization : operationsFactory.getDefaultOrganization();
+    }
+
+    protected String resolveSpace(String space) {
+        return space != null ? space : operationsFactory.getDefaultSpace();
+    }
 }
\ No newline at end of file
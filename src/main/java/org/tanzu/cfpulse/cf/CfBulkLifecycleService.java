@@ -0,0 +1,190 @@
+package org.tanzu.cfpulse.cf;
+
+import org.cloudfoundry.operations.CloudFoundryOperations;
+import org.cloudfoundry.operations.applications.ApplicationSummary;
+import org.cloudfoundry.operations.applications.RestartApplicationRequest;
+import org.cloudfoundry.operations.applications.ScaleApplicationRequest;
+import org.cloudfoundry.operations.applications.StartApplicationRequest;
+import org.cloudfoundry.operations.applications.StopApplicationRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springaicommunity.mcp.annotation.McpTool;
+import org.springaicommunity.mcp.annotation.McpToolParam;
+import org.springaicommunity.mcp.context.McpSyncRequestContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Starts, stops, restarts or scales many applications of a space in one call. Applications are
+ * named explicitly or selected with a name pattern against the cached space listing, and are
+ * processed concurrently up to a bounded parallelism. A failure is reported in that application's
+ * result and does not stop the others.
+ */
+@Service
+public class CfBulkLifecycleService extends CfBaseService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CfBulkLifecycleService.class);
+
+    private static final String BULK_LIFECYCLE = "Start, stop, restart or scale many Cloud Foundry applications in a space at once, instead of calling the single-application tools one by one. Select applications by name, by a name pattern, or both. Applications are processed concurrently up to the given parallelism, progress is reported per application, and one failure does not stop the others. Returns the outcome and duration of each application. Organization and space parameters are optional - if not provided or null, the configured default org/space will be used automatically.";
+    private static final String OPERATION_PARAM = "The operation to apply to every selected application: START, STOP, RESTART or SCALE";
+    private static final String NAMES_PARAM = "Names of the applications to operate on (optional if namePattern is given)";
+    private static final String PATTERN_PARAM = "Select every application in the space whose name matches this pattern, ignoring case. Use * for any run of characters and ? for a single character, for example dev-* (optional if applicationNames is given)";
+    private static final String INSTANCES_PARAM = "For SCALE, the new number of instances (optional)";
+    private static final String MEMORY_PARAM = "For SCALE, the new memory limit in megabytes (optional)";
+    private static final String DISK_PARAM = "For SCALE, the new disk size in megabytes (optional)";
+    private static final String PARALLELISM_PARAM = "Maximum number of applications to operate on at the same time (optional)";
+
+    private final SpaceListingCache listingCache;
+    private final int defaultParallelism;
+    private final int maxParallelism;
+
+    public CfBulkLifecycleService(CloudFoundryOperationsFactory operationsFactory,
+                                  SpaceListingCache listingCache,
+                                  @Value("${cf.lifecycle.bulk.parallelism:8}") int defaultParallelism,
+                                  @Value("${cf.lifecycle.bulk.max-parallelism:32}") int maxParallelism) {
+        super(operationsFactory);
+        this.listingCache = listingCache;
+        this.defaultParallelism = defaultParallelism;
+        this.maxParallelism = maxParallelism;
+    }
+
+    @McpTool(description = BULK_LIFECYCLE)
+    public BulkLifecycleResult bulkApplicationLifecycle(
+            @McpToolParam(description = OPERATION_PARAM) LifecycleOperation operation,
+            @McpToolParam(description = NAMES_PARAM, required = false) List<String> applicationNames,
+            @McpToolParam(description = PATTERN_PARAM, required = false) String namePattern,
+            @McpToolParam(description = INSTANCES_PARAM, required = false) Integer instances,
+            @McpToolParam(description = MEMORY_PARAM, required = false) Integer memory,
+            @McpToolParam(description = DISK_PARAM, required = false) Integer disk,
+            @McpToolParam(description = PARALLELISM_PARAM, required = false) Integer parallelism,
+            @McpToolParam(description = ORG_PARAM, required = false) String organization,
+            @McpToolParam(description = SPACE_PARAM, required = false) String space,
+            McpSyncRequestContext context) {
+
+        if (operation == LifecycleOperation.SCALE && instances == null && memory == null && disk == null) {
+            throw new IllegalArgumentException("SCALE needs at least one of instances, memory or disk");
+        }
+        List<String> applications = select(applicationNames, namePattern, organization, space);
+        int concurrency = parallelism != null && parallelism > 0 ? Math.min(parallelism, maxParallelism) : defaultParallelism;
+        logger.info("Starting bulk {} of {} applications with parallelism {}", operation, applications.size(), concurrency);
+
+        CloudFoundryOperations operations = getOperations(organization, space);
+        long start = System.nanoTime();
+        LifecycleResult[] results = new LifecycleResult[applications.size()];
+        int succeeded = 0;
+        int completed = 0;
+        try {
+            // Results are consumed on the calling thread so progress is never sent from a reactor I/O thread
+            for (IndexedResult indexed : Flux.range(0, applications.size())
+                    .flatMap(index -> apply(operations, operation, applications.get(index), instances, memory, disk)
+                            .map(result -> new IndexedResult(index, result)), concurrency)
+                    .toIterable()) {
+                LifecycleResult result = indexed.result();
+                results[indexed.index()] = result;
+                completed++;
+                if (result.status() == LifecycleStatus.SUCCEEDED) {
+                    succeeded++;
+                }
+                logger.info("Bulk {} of {}: {}", operation, result.applicationName(), result.status());
+
+                int done = completed;
+                context.progress(spec -> spec.progress(done)
+                        .total(applications.size())
+                        .message(result.applicationName() + ": " + result.status()));
+            }
+        } finally {
+            listingCache.invalidate(organization, space);
+        }
+
+        return new BulkLifecycleResult(operation, succeeded, applications.size() - succeeded,
+                Duration.ofNanos(System.nanoTime() - start).toMillis(), List.of(results));
+    }
+
+    private List<String> select(List<String> applicationNames, String namePattern, String organization, String space) {
+        if ((applicationNames == null || applicationNames.isEmpty()) && (namePattern == null || namePattern.isBlank())) {
+            throw new IllegalArgumentException("Give applicationNames, namePattern or both to select applications");
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        if (applicationNames != null) {
+            selected.addAll(applicationNames);
+        }
+        if (namePattern != null && !namePattern.isBlank()) {
+            Pattern pattern = glob(namePattern);
+            List<ApplicationSummary> summaries = listingCache.get(SpaceListingCache.Listing.APPLICATIONS, organization, space,
+                    () -> getOperations(organization, space).applications().list().collectList().block());
+            summaries.stream()
+                    .map(ApplicationSummary::getName)
+                    .filter(name -> pattern.matcher(name).matches())
+                    .forEach(selected::add);
+        }
+        return List.copyOf(selected);
+    }
+
+    private static Pattern glob(String namePattern) {
+        StringBuilder regex = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        for (char c : namePattern.toCharArray()) {
+            if (c == '*' || c == '?') {
+                if (!literal.isEmpty()) {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                regex.append(c == '*' ? ".*" : ".");
+            } else {
+                literal.append(c);
+            }
+        }
+        if (!literal.isEmpty()) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        return Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+    }
+
+    private static Mono<LifecycleResult> apply(CloudFoundryOperations operations, LifecycleOperation operation,
+                                               String applicationName, Integer instances, Integer memory, Integer disk) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            Mono<Void> call = switch (operation) {
+                case START -> operations.applications().start(StartApplicationRequest.builder().name(applicationName).build());
+                case STOP -> operations.applications().stop(StopApplicationRequest.builder().name(applicationName).build());
+                case RESTART -> operations.applications().restart(RestartApplicationRequest.builder().name(applicationName).build());
+                case SCALE -> operations.applications().scale(ScaleApplicationRequest.builder()
+                        .name(applicationName)
+                        .instances(instances)
+                        .memoryLimit(memory)
+                        .diskLimit(disk)
+                        .build());
+            };
+            return call
+                    .then(Mono.fromSupplier(() -> new LifecycleResult(applicationName, LifecycleStatus.SUCCEEDED,
+                            Duration.ofNanos(System.nanoTime() - start).toMillis(), null)))
+                    .onErrorResume(error -> Mono.just(new LifecycleResult(applicationName, LifecycleStatus.FAILED,
+                            Duration.ofNanos(System.nanoTime() - start).toMillis(), error.getMessage())));
+        });
+    }
+
+    public enum LifecycleOperation { START, STOP, RESTART, SCALE }
+
+    public enum LifecycleStatus { SUCCEEDED, FAILED }
+
+    /**
+     * Outcome of the operation on a single application
+     */
+    public record LifecycleResult(String applicationName, LifecycleStatus status, long durationMillis, String error) {}
+
+    /**
+     * Outcome of a bulk operation, with one result per selected application in selection order
+     */
+    public record BulkLifecycleResult(LifecycleOperation operation, int succeeded, int failed, long durationMillis,
+                                      List<LifecycleResult> applications) {}
+
+    private record IndexedResult(int index, LifecycleResult result) {}
+}
@@ -1,5 +1,9 @@
 package org.tanzu.cfpulse.cf;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.logging.LogLevel;
 import org.cloudfoundry.client.CloudFoundryClient;
 import org.cloudfoundry.doppler.DopplerClient;
 import org.cloudfoundry.operations.DefaultCloudFoundryOperations;
@@ -14,25 +18,78 @@ import org.cloudfoundry.uaa.UaaClient;
 import org.cloudfoundry.networking.NetworkingClient;
 import org.cloudfoundry.reactor.networking.ReactorNetworkingClient;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.transport.logging.AdvancedByteBufFormat;
+
+import java.time.Duration;
 
 @Configuration
+@EnableConfigurationProperties({ToolConcurrencyProperties.class, CfHttpClientProperties.class})
 public class CfConfiguration {
+
+    /** Matches the socket buffer sizes DefaultConnectionContext applies to its own client */
+    private static final int SOCKET_BUFFER_SIZE = 10 * 1024 * 1024;
+
     @Bean
-    DefaultConnectionContext connectionContext(@Value("${cf.apiHost}") String apiHost) {
+    DefaultConnectionContext connectionContext(@Value("${cf.apiHost}") String apiHost,
+                                               CfApiCallRecorder apiCallRecorder,
+                                               ConnectionProvider cfConnectionProvider,
+                                               CfHttpClientProperties properties) {
         return DefaultConnectionContext.builder()
                 .apiHost(apiHost)
+                .httpClient(apiCallRecorder.instrument(httpClient(cfConnectionProvider, properties)))
+                .build();
+    }
+
+    /**
+     * Connection pool for all Cloud Foundry API traffic. Pool utilization and acquire wait times are
+     * published under {@code reactor.netty.connection.provider}.
+     */
+    @Bean(destroyMethod = "dispose")
+    ConnectionProvider cfConnectionProvider(CfHttpClientProperties properties) {
+        CfHttpClientProperties.Pool pool = properties.pool();
+        return ConnectionProvider.builder("cloudfoundry-client")
+                .maxConnections(pool.maxConnections())
+                .pendingAcquireMaxCount(pool.pendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.pendingAcquireTimeout())
+                .maxIdleTime(pool.maxIdleTime())
+                .maxLifeTime(pool.maxLifeTime())
+                .evictInBackground(pool.evictionInterval())
+                .metrics(true)
                 .build();
     }
 
+    private static HttpClient httpClient(ConnectionProvider connectionProvider, CfHttpClientProperties properties) {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .compress(true)
+                .secure()
+                .option(ChannelOption.SO_RCVBUF, SOCKET_BUFFER_SIZE)
+                .option(ChannelOption.SO_SNDBUF, SOCKET_BUFFER_SIZE)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.connectTimeout().toMillis())
+                .responseTimeout(properties.responseTimeout())
+                .wiretap("cloudfoundry-client.wire", LogLevel.TRACE, AdvancedByteBufFormat.TEXTUAL);
+        return properties.http2() ? httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11) : httpClient;
+    }
+
     @Bean
-    PasswordGrantTokenProvider tokenProvider(@Value("${cf.username}") String username,
-                                             @Value("${cf.password}") String password) {
-        return PasswordGrantTokenProvider.builder()
+    RefreshingTokenProvider tokenProvider(@Value("${cf.username}") String username,
+                                          @Value("${cf.password}") String password,
+                                          @Value("${cf.token.refresh-before:2m}") Duration refreshBefore,
+                                          @Value("${cf.token.retry-interval:15s}") Duration retryInterval,
+                                          ConnectionContext connectionContext,
+                                          ObjectMapper objectMapper,
+                                          MeterRegistry meterRegistry) {
+        PasswordGrantTokenProvider passwordGrant = PasswordGrantTokenProvider.builder()
                 .password(password)
                 .username(username)
                 .build();
+        return new RefreshingTokenProvider(passwordGrant, connectionContext, objectMapper, meterRegistry,
+                refreshBefore, retryInterval);
     }
 
     @Bean
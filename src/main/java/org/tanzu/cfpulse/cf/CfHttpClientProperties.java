@@ -0,0 +1,37 @@
+package org.tanzu.cfpulse.cf;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * HTTP client settings shared by the Cloud Foundry, UAA, Doppler and networking clients.
+ *
+ * @param pool            connection pool settings
+ * @param connectTimeout  how long to wait for a TCP connection to be established
+ * @param responseTimeout how long to wait for a response once a request has been sent
+ * @param http2           negotiate HTTP/2 over TLS where the foundation supports it, falling back to HTTP/1.1
+ */
+@ConfigurationProperties("cf.http")
+public record CfHttpClientProperties(@DefaultValue Pool pool,
+                                     @DefaultValue("10s") Duration connectTimeout,
+                                     @DefaultValue("2m") Duration responseTimeout,
+                                     @DefaultValue("false") boolean http2) {
+
+    /**
+     * @param maxConnections         maximum open connections per remote host
+     * @param pendingAcquireMaxCount maximum requests queued waiting for a connection before new ones are rejected
+     * @param pendingAcquireTimeout  how long a request waits for a connection before failing
+     * @param maxIdleTime            idle connections older than this are closed
+     * @param maxLifeTime            connections older than this are closed once released
+     * @param evictionInterval       how often idle and expired connections are evicted in the background
+     */
+    public record Pool(@DefaultValue("64") int maxConnections,
+                       @DefaultValue("512") int pendingAcquireMaxCount,
+                       @DefaultValue("10s") Duration pendingAcquireTimeout,
+                       @DefaultValue("30s") Duration maxIdleTime,
+                       @DefaultValue("10m") Duration maxLifeTime,
+                       @DefaultValue("30s") Duration evictionInterval) {
+    }
+}
@@ -0,0 +1,62 @@
+package org.tanzu.cfpulse.cf;
+
+import org.springaicommunity.mcp.annotation.McpTool;
+import org.springaicommunity.mcp.annotation.McpToolParam;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Tools over the {@link InstanceStatsSampler}: choose which applications to sample, then ask how
+ * their CPU, memory and disk use has moved over a window.
+ */
+@Service
+public class CfInstanceStatsService extends CfBaseService {
+
+    private static final String TRACK_INSTANCE_STATS = "Start sampling the instance stats of a Cloud Foundry application in the background, every few seconds, so that instanceStats can report how its CPU, memory and disk use have moved over time. Use this before watching an application that may be heading for an out-of-memory crash or is running hot. Returns how far back the samples reach and how much memory they take. Organization and space parameters are optional - if not provided or null, the configured default org/space will be used automatically.";
+    private static final String UNTRACK_INSTANCE_STATS = "Stop sampling the instance stats of a Cloud Foundry application and discard its samples. Organization and space parameters are optional - if not provided or null, the configured default org/space will be used automatically.";
+    private static final String TRACKED_APPLICATIONS = "List the applications whose instance stats are being sampled, with when sampling started, how many samples were taken and the last sampling error, if any.";
+    private static final String INSTANCE_STATS = "Report the minimum, maximum, average, 95th percentile and latest value of CPU percent, memory in MB, memory as a percent of the quota, disk in MB and running instance count of a sampled application over a recent window. Memory, CPU and disk are the highest across the running instances at each sample. Answered from samples already held in memory, so it is fast and can be called repeatedly; the application must be tracked with trackInstanceStats first. Longer windows are read at a coarser resolution. Organization and space parameters are optional - if not provided or null, the configured default org/space will be used automatically.";
+    private static final String WINDOW_PARAM = "How many minutes back to summarise. Optional - defaults to 15.";
+
+    private static final int DEFAULT_WINDOW_MINUTES = 15;
+
+    private final InstanceStatsSampler sampler;
+
+    public CfInstanceStatsService(CloudFoundryOperationsFactory operationsFactory, InstanceStatsSampler sampler) {
+        super(operationsFactory);
+        this.sampler = sampler;
+    }
+
+    @McpTool(description = TRACK_INSTANCE_STATS)
+    public InstanceStatsSampler.TrackingStatus trackInstanceStats(
+            @McpToolParam(description = NAME_PARAM) String applicationName,
+            @McpToolParam(description = ORG_PARAM, required = false) String organization,
+            @McpToolParam(description = SPACE_PARAM, required = false) String space) {
+        return sampler.track(resolveOrganization(organization), resolveSpace(space), applicationName);
+    }
+
+    @McpTool(description = UNTRACK_INSTANCE_STATS)
+    public void untrackInstanceStats(
+            @McpToolParam(description = NAME_PARAM) String applicationName,
+            @McpToolParam(description = ORG_PARAM, required = false) String organization,
+            @McpToolParam(description = SPACE_PARAM, required = false) String space) {
+        sampler.untrack(resolveOrganization(organization), resolveSpace(space), applicationName);
+    }
+
+    @McpTool(description = TRACKED_APPLICATIONS)
+    public List<InstanceStatsSampler.TrackingStatus> trackedApplicationsList() {
+        return sampler.list();
+    }
+
+    @McpTool(description = INSTANCE_STATS)
+    public InstanceStatsSampler.InstanceStats instanceStats(
+            @McpToolParam(description = NAME_PARAM) String applicationName,
+            @McpToolParam(description = WINDOW_PARAM, required = false) Integer windowMinutes,
+            @McpToolParam(description = ORG_PARAM, required = false) String organization,
+            @McpToolParam(description = SPACE_PARAM, required = false) String space) {
+        Duration window = Duration.ofMinutes(windowMinutes != null && windowMinutes > 0 ? windowMinutes : DEFAULT_WINDOW_MINUTES);
+        return sampler.query(resolveOrganization(organization), resolveSpace(space), applicationName, window);
+    }
+}
@@ -0,0 +1,187 @@
+package org.tanzu.cfpulse.cf;
+
+import org.cloudfoundry.client.CloudFoundryClient;
+import org.cloudfoundry.client.v3.applications.ApplicationResource;
+import org.cloudfoundry.client.v3.applications.ListApplicationsRequest;
+import org.cloudfoundry.client.v3.organizations.ListOrganizationsRequest;
+import org.cloudfoundry.client.v3.organizations.OrganizationResource;
+import org.cloudfoundry.client.v3.processes.ListProcessesRequest;
+import org.cloudfoundry.client.v3.processes.ProcessResource;
+import org.cloudfoundry.client.v3.routes.ListRoutesRequest;
+import org.cloudfoundry.client.v3.routes.RouteResource;
+import org.cloudfoundry.client.v3.spaces.ListSpacesRequest;
+import org.cloudfoundry.client.v3.spaces.SpaceResource;
+import org.cloudfoundry.util.PaginationUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springaicommunity.mcp.annotation.McpTool;
+import org.springaicommunity.mcp.annotation.McpToolParam;
+import org.springaicommunity.mcp.context.McpSyncRequestContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Builds an application inventory across every org and space of the foundation. Each organization
+ * is read with a few paged v3 listings filtered by organization (its spaces, applications, web
+ * processes and routes), and organizations are read concurrently up to a bounded parallelism. The
+ * scan goes to the client directly, so it neither creates space-scoped operations contexts nor
+ * fills the shared listing cache that interactive tools rely on.
+ */
+@Service
+public class CfInventoryService extends CfBaseService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CfInventoryService.class);
+
+    private static final String FOUNDATION_INVENTORY = "Return every application across all orgs and spaces of the Cloud Foundry foundation in a single call, with its org, space, state, instances and routes. Use this to find where an application is running instead of listing orgs, spaces and applications one by one. Organizations are queried concurrently and progress is reported per organization; organizations that cannot be read are listed under failures.";
+    private static final String INVENTORY_ORG_PARAM = "Name of a single Cloud Foundry organization to inventory (optional - all organizations are included when omitted)";
+    private static final String APP_FILTER_PARAM = "Only include applications whose name contains this text, ignoring case (optional)";
+    private static final String PARALLELISM_PARAM = "Maximum number of organizations to query at the same time (optional)";
+
+    /** The largest page the v3 API serves, so a listing takes as few requests as possible */
+    private static final int PAGE_SIZE = 5000;
+
+    private final int defaultParallelism;
+    private final int maxParallelism;
+
+    public CfInventoryService(CloudFoundryOperationsFactory operationsFactory,
+                              @Value("${cf.inventory.parallelism:16}") int defaultParallelism,
+                              @Value("${cf.inventory.max-parallelism:32}") int maxParallelism) {
+        super(operationsFactory);
+        this.defaultParallelism = defaultParallelism;
+        this.maxParallelism = maxParallelism;
+    }
+
+    @McpTool(description = FOUNDATION_INVENTORY)
+    public FoundationInventory foundationInventory(
+            @McpToolParam(description = INVENTORY_ORG_PARAM, required = false) String organization,
+            @McpToolParam(description = APP_FILTER_PARAM, required = false) String applicationName,
+            @McpToolParam(description = PARALLELISM_PARAM, required = false) Integer parallelism,
+            McpSyncRequestContext context) {
+
+        int concurrency = parallelism != null && parallelism > 0 ? Math.min(parallelism, maxParallelism) : defaultParallelism;
+        String filter = applicationName != null ? applicationName.toLowerCase(Locale.ROOT) : null;
+        CloudFoundryClient client = operationsFactory.getCloudFoundryClient();
+        long start = System.nanoTime();
+
+        List<InventoryApplication> applications = new ArrayList<>();
+        List<InventoryFailure> failures = new ArrayList<>();
+        int organizations = 0;
+        int spaces = 0;
+        // Results are consumed on the calling thread so progress is never sent from a reactor I/O thread
+        for (OrganizationInventory inventory : organizations(client, organization)
+                .flatMap(org -> inventory(client, org, filter), concurrency)
+                .toIterable()) {
+            organizations++;
+            spaces += inventory.spaces();
+            applications.addAll(inventory.applications());
+            if (inventory.failure() != null) {
+                failures.add(inventory.failure());
+            }
+            int progress = organizations;
+            context.progress(spec -> spec.progress(progress)
+                    .message(inventory.organization() + ": " + inventory.applications().size() + " applications in "
+                            + inventory.spaces() + " spaces"));
+        }
+
+        applications.sort(Comparator.comparing(InventoryApplication::organization)
+                .thenComparing(InventoryApplication::space)
+                .thenComparing(InventoryApplication::name));
+        long durationMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+        logger.info("Inventoried {} applications in {} spaces of {} organizations with parallelism {} in {}ms ({} failures)",
+                applications.size(), spaces, organizations, concurrency, durationMillis, failures.size());
+        return new FoundationInventory(organizations, spaces, applications.size(), durationMillis, applications, failures);
+    }
+
+    private static Flux<OrganizationResource> organizations(CloudFoundryClient client, String organization) {
+        return PaginationUtils.requestClientV3Resources(page -> {
+            ListOrganizationsRequest.Builder builder = ListOrganizationsRequest.builder().perPage(PAGE_SIZE).page(page);
+            if (organization != null) builder.name(organization);
+            return client.organizationsV3().list(builder.build());
+        });
+    }
+
+    private static Mono<OrganizationInventory> inventory(CloudFoundryClient client, OrganizationResource organization,
+                                                         String filter) {
+        String organizationId = organization.getId();
+        return Mono.zip(
+                        PaginationUtils.requestClientV3Resources(page -> client.spacesV3()
+                                        .list(ListSpacesRequest.builder().organizationId(organizationId).perPage(PAGE_SIZE).page(page).build()))
+                                .collectMap(SpaceResource::getId, SpaceResource::getName),
+                        PaginationUtils.requestClientV3Resources(page -> client.applicationsV3()
+                                        .list(ListApplicationsRequest.builder().organizationId(organizationId).perPage(PAGE_SIZE).page(page).build()))
+                                .filter(app -> filter == null || app.getName().toLowerCase(Locale.ROOT).contains(filter))
+                                .collectList(),
+                        PaginationUtils.requestClientV3Resources(page -> client.processes()
+                                        .list(ListProcessesRequest.builder().organizationId(organizationId).type("web").perPage(PAGE_SIZE).page(page).build()))
+                                .collectMap(CfInventoryService::applicationId),
+                        PaginationUtils.requestClientV3Resources(page -> client.routesV3()
+                                        .list(ListRoutesRequest.builder().organizationId(organizationId).perPage(PAGE_SIZE).page(page).build()))
+                                .collectList())
+                .map(listings -> {
+                    Map<String, String> spaces = listings.getT1();
+                    Map<String, ProcessResource> processes = listings.getT3();
+                    Map<String, List<String>> urls = new HashMap<>();
+                    for (RouteResource route : listings.getT4()) {
+                        if (route.getDestinations() == null) {
+                            continue;
+                        }
+                        route.getDestinations().stream()
+                                .map(destination -> destination.getApplication().getApplicationId())
+                                .distinct()
+                                .forEach(id -> urls.computeIfAbsent(id, key -> new ArrayList<>()).add(route.getUrl()));
+                    }
+                    List<InventoryApplication> applications = listings.getT2().stream()
+                            .map(app -> InventoryApplication.of(organization.getName(), spaces, app, processes.get(app.getId()),
+                                    urls.getOrDefault(app.getId(), List.of())))
+                            .toList();
+                    return new OrganizationInventory(organization.getName(), spaces.size(), applications, null);
+                })
+                .onErrorResume(e -> Mono.just(new OrganizationInventory(organization.getName(), 0, List.of(),
+                        new InventoryFailure(organization.getName(), null, e.getMessage()))));
+    }
+
+    /**
+     * The application a process belongs to; a web process shares its application's GUID on
+     * foundations that predate process relationships
+     */
+    private static String applicationId(ProcessResource process) {
+        if (process.getRelationships() != null && process.getRelationships().getApp() != null) {
+            return process.getRelationships().getApp().getData().getId();
+        }
+        return process.getId();
+    }
+
+    public record FoundationInventory(int organizations, int spaces, int applicationCount, long durationMillis,
+                                      List<InventoryApplication> applications, List<InventoryFailure> failures) {}
+
+    /**
+     * @param instances   desired instances of the web process
+     * @param memoryLimit memory of each web process instance, in MB
+     */
+    public record InventoryApplication(String organization, String space, String name, String requestedState,
+                                       Integer instances, Integer memoryLimit, List<String> urls) {
+
+        private static InventoryApplication of(String organization, Map<String, String> spaces, ApplicationResource app,
+                                               ProcessResource web, List<String> urls) {
+            String spaceId = app.getRelationships().getSpace().getData().getId();
+            return new InventoryApplication(organization, spaces.getOrDefault(spaceId, spaceId), app.getName(),
+                    app.getState() != null ? app.getState().getValue() : null,
+                    web != null ? web.getInstances() : null, web != null ? web.getMemoryInMb() : null, List.copyOf(urls));
+        }
+    }
+
+    public record InventoryFailure(String organization, String space, String error) {}
+
+    private record OrganizationInventory(String organization, int spaces, List<InventoryApplication> applications,
+                                         InventoryFailure failure) {}
+}
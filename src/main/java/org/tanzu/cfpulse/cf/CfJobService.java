@@ -0,0 +1,35 @@
+package org.tanzu.cfpulse.cf;
+
+import org.springaicommunity.mcp.annotation.McpTool;
+import org.springaicommunity.mcp.annotation.McpToolParam;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Reports on the jobs started by long-running tools such as {@code pushApplication},
+ * {@code restartApplication} and {@code cloneApp}.
+ */
+@Service
+public class CfJobService {
+
+    private static final String JOB_STATUS = "Return the status of a job started by a tool called with async=true: whether it is queued, running, succeeded or failed, the last stage it reached, the time elapsed since it was submitted, and its result or error once finished. Poll this until the job has finished.";
+    private static final String JOBS_LIST = "List the recent and in-progress jobs of long-running tools, most recent first, with the status, stage and elapsed time of each. Finished jobs are kept for a limited time.";
+    private static final String JOB_ID_PARAM = "The job id returned by the tool that started the job";
+
+    private final JobRegistry jobRegistry;
+
+    public CfJobService(JobRegistry jobRegistry) {
+        this.jobRegistry = jobRegistry;
+    }
+
+    @McpTool(description = JOB_STATUS)
+    public JobRegistry.JobStatus jobStatus(@McpToolParam(description = JOB_ID_PARAM) String jobId) {
+        return jobRegistry.status(jobId);
+    }
+
+    @McpTool(description = JOBS_LIST)
+    public List<JobRegistry.JobStatus> jobsList() {
+        return jobRegistry.list();
+    }
+}
@@ -0,0 +1,199 @@
+package org.tanzu.cfpulse.cf;
+
+import org.cloudfoundry.client.CloudFoundryClient;
+import org.cloudfoundry.client.v3.applications.GetApplicationRequest;
+import org.cloudfoundry.doppler.Envelope;
+import org.cloudfoundry.doppler.LogMessage;
+import org.cloudfoundry.doppler.RecentLogsRequest;
+import org.cloudfoundry.doppler.StreamRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springaicommunity.mcp.annotation.McpTool;
+import org.springaicommunity.mcp.annotation.McpToolParam;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Reads application logs from Doppler. Lines are filtered by source type and pattern as they
+ * arrive, and only the matching ones are kept, in a buffer of the requested size, so a noisy
+ * application costs no more memory than a quiet one. A tail keeps the lines that arrived last, and
+ * recent logs, which arrive unordered, keep the lines with the latest timestamps.
+ */
+@Service
+public class CfLogService extends CfBaseService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CfLogService.class);
+
+    private static final String RECENT_LOGS = "Return the recent log lines of a Cloud Foundry application, oldest first, as retained by the platform: application output, staging, router, cell and API events. Use this to diagnose crashes and failed starts. Lines can be filtered by source type and by a regular expression, and only the newest matching lines up to the limit are returned. Organization and space parameters are optional - if not provided or null, the configured default org/space will be used automatically.";
+    private static final String TAIL_LOGS = "Follow the live log stream of a Cloud Foundry application for a bounded number of seconds and return the lines emitted in that window, oldest first. Use this to watch an application while reproducing a problem or while it starts. Lines can be filtered by source type and by a regular expression, and only the newest matching lines up to maxLines are returned. Organization and space parameters are optional - if not provided or null, the configured default org/space will be used automatically.";
+    private static final String SOURCE_TYPES_PARAM = "Only return lines from these sources, for example APP, STG, RTR, CELL or API. A source also matches its sub-sources, so APP matches APP/PROC/WEB. Optional - omit for every source.";
+    private static final String LOG_PATTERN_PARAM = "Only return lines whose message contains a match for this Java regular expression, for example (?i)exception|error. Optional - omit for every line.";
+    private static final String LIMIT_PARAM = "Maximum number of lines to return, keeping the newest. Optional - defaults to 200.";
+    private static final String DURATION_PARAM = "How many seconds to follow the log stream for. Optional - defaults to 30, and is capped by the server.";
+
+    private static final Comparator<LogLine> BY_TIMESTAMP = Comparator.comparing(LogLine::timestamp);
+
+    private final NameResolver nameResolver;
+    private final int defaultLines;
+    private final int maxLines;
+    private final Duration defaultTailDuration;
+    private final Duration maxTailDuration;
+
+    public CfLogService(CloudFoundryOperationsFactory operationsFactory,
+                        NameResolver nameResolver,
+                        @Value("${cf.logs.default-lines:200}") int defaultLines,
+                        @Value("${cf.logs.max-lines:1000}") int maxLines,
+                        @Value("${cf.logs.tail.default-duration:30s}") Duration defaultTailDuration,
+                        @Value("${cf.logs.tail.max-duration:2m}") Duration maxTailDuration) {
+        super(operationsFactory);
+        this.nameResolver = nameResolver;
+        this.defaultLines = defaultLines;
+        this.maxLines = maxLines;
+        this.defaultTailDuration = defaultTailDuration;
+        this.maxTailDuration = maxTailDuration;
+    }
+
+    @McpTool(description = RECENT_LOGS)
+    public LogLines recentLogs(
+            @McpToolParam(description = NAME_PARAM) String applicationName,
+            @McpToolParam(description = SOURCE_TYPES_PARAM, required = false) List<String> sourceTypes,
+            @McpToolParam(description = LOG_PATTERN_PARAM, required = false) String pattern,
+            @McpToolParam(description = LIMIT_PARAM, required = false) Integer limit,
+            @McpToolParam(description = ORG_PARAM, required = false) String organization,
+            @McpToolParam(description = SPACE_PARAM, required = false) String space) {
+
+        Predicate<LogLine> filter = filter(sourceTypes, pattern);
+        // Doppler returns the recent logs it retains for the application in no particular order, so
+        // the newest matching lines are kept by timestamp as they arrive rather than sorted up front
+        LatestLogBuffer<LogLine> buffer = new LatestLogBuffer<>(lines(limit), BY_TIMESTAMP);
+        AtomicLong matched = new AtomicLong();
+        String applicationId = applicationId(applicationName, organization, space);
+
+        lines(operationsFactory.getDopplerClient()
+                .recentLogs(RecentLogsRequest.builder().applicationId(applicationId).build()))
+                .filter(filter)
+                .doOnNext(line -> {
+                    matched.incrementAndGet();
+                    buffer.add(line);
+                })
+                .blockLast();
+
+        logger.debug("Read {} matching recent log lines of {}", matched.get(), applicationName);
+        return new LogLines(applicationName, matched.get(), buffer.dropped(), buffer.snapshot());
+    }
+
+    @McpTool(description = TAIL_LOGS)
+    public LogLines tailLogs(
+            @McpToolParam(description = NAME_PARAM) String applicationName,
+            @McpToolParam(description = DURATION_PARAM, required = false) Integer durationSeconds,
+            @McpToolParam(description = SOURCE_TYPES_PARAM, required = false) List<String> sourceTypes,
+            @McpToolParam(description = LOG_PATTERN_PARAM, required = false) String pattern,
+            @McpToolParam(description = LIMIT_PARAM, required = false) Integer maxLines,
+            @McpToolParam(description = ORG_PARAM, required = false) String organization,
+            @McpToolParam(description = SPACE_PARAM, required = false) String space) {
+
+        Duration duration = durationSeconds != null && durationSeconds > 0
+                ? Duration.ofSeconds(Math.min(durationSeconds, maxTailDuration.toSeconds()))
+                : defaultTailDuration;
+        Predicate<LogLine> filter = filter(sourceTypes, pattern);
+        LogRingBuffer<LogLine> buffer = new LogRingBuffer<>(lines(maxLines));
+        AtomicLong matched = new AtomicLong();
+        String applicationId = applicationId(applicationName, organization, space);
+
+        logger.info("Tailing logs of {} for {}s", applicationName, duration.toSeconds());
+        lines(operationsFactory.getDopplerClient()
+                .stream(StreamRequest.builder().applicationId(applicationId).build()))
+                .take(duration)
+                .filter(filter)
+                .doOnNext(line -> {
+                    matched.incrementAndGet();
+                    buffer.add(line);
+                })
+                .blockLast();
+
+        List<LogLine> lines = buffer.snapshot();
+        // Lines from different instances can arrive slightly out of order
+        lines.sort(BY_TIMESTAMP);
+        return new LogLines(applicationName, matched.get(), buffer.dropped(), lines);
+    }
+
+    /**
+     * The application's GUID, checked against the Cloud Controller first: Doppler cannot tell a
+     * stale GUID from a quiet application, so a cached GUID of a recreated application would
+     * otherwise read nothing
+     */
+    private String applicationId(String applicationName, String organization, String space) {
+        CloudFoundryClient client = operationsFactory.getCloudFoundryClient();
+        return nameResolver.withApplicationId(organization, space, applicationName, id -> client.applicationsV3()
+                        .get(GetApplicationRequest.builder().applicationId(id).build())
+                        .map(application -> application.getId()))
+                .block();
+    }
+
+    private int lines(Integer requested) {
+        return requested != null && requested > 0 ? Math.min(requested, maxLines) : defaultLines;
+    }
+
+    private static Flux<LogLine> lines(Flux<Envelope> envelopes) {
+        return envelopes
+                .filter(envelope -> envelope.getLogMessage() != null)
+                .map(envelope -> LogLine.of(envelope.getLogMessage()));
+    }
+
+    private static Predicate<LogLine> filter(List<String> sourceTypes, String pattern) {
+        Predicate<LogLine> filter = line -> true;
+        if (sourceTypes != null && !sourceTypes.isEmpty()) {
+            List<String> sources = sourceTypes.stream().map(source -> source.toUpperCase(Locale.ROOT)).toList();
+            filter = line -> line.sourceType() != null && sources.stream().anyMatch(source -> {
+                String type = line.sourceType().toUpperCase(Locale.ROOT);
+                return type.equals(source) || type.startsWith(source + "/");
+            });
+        }
+        if (pattern != null && !pattern.isBlank()) {
+            Pattern regex = Pattern.compile(pattern);
+            filter = filter.and(line -> line.message() != null && regex.matcher(line.message()).find());
+        }
+        return filter;
+    }
+
+    /**
+     * A single log line
+     *
+     * @param timestamp      when the line was emitted
+     * @param sourceType     what emitted the line, for example APP/PROC/WEB, STG or RTR
+     * @param sourceInstance the instance index of the source
+     * @param messageType    OUT for standard output, ERR for standard error
+     * @param message        the text of the line
+     */
+    public record LogLine(Instant timestamp, String sourceType, String sourceInstance, String messageType, String message) {
+
+        static LogLine of(LogMessage message) {
+            Long nanos = message.getTimestamp();
+            return new LogLine(nanos != null ? Instant.ofEpochSecond(0, nanos) : Instant.EPOCH,
+                    message.getSourceType(),
+                    message.getSourceInstance(),
+                    message.getMessageType() != null ? message.getMessageType().name() : null,
+                    message.getMessage() != null ? message.getMessage().stripTrailing() : null);
+        }
+    }
+
+    /**
+     * Log lines of an application, oldest first
+     *
+     * @param applicationName the application the lines belong to
+     * @param matched         how many lines passed the filters
+     * @param dropped         how many matching lines were left out to stay within the limit
+     * @param lines           the newest matching lines
+     */
+    public record LogLines(String applicationName, long matched, long dropped, List<LogLine> lines) {}
+}
@@ -1,29 +1,68 @@
 package org.tanzu.cfpulse.cf;
 
-import org.cloudfoundry.operations.networkpolicies.AddNetworkPolicyRequest;
+import org.cloudfoundry.networking.v1.policies.CreatePoliciesRequest;
+import org.cloudfoundry.networking.v1.policies.DeletePoliciesRequest;
+import org.cloudfoundry.networking.v1.policies.Destination;
+import org.cloudfoundry.networking.v1.policies.Ports;
+import org.cloudfoundry.networking.v1.policies.Source;
 import org.cloudfoundry.operations.networkpolicies.ListNetworkPoliciesRequest;
 import org.cloudfoundry.operations.networkpolicies.Policy;
-import org.cloudfoundry.operations.networkpolicies.RemoveNetworkPolicyRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springaicommunity.mcp.annotation.McpTool;
 import org.springaicommunity.mcp.annotation.McpToolParam;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 @Service
 public class CfNetworkPolicyService extends CfBaseService {
 
+    private static final Logger logger = LoggerFactory.getLogger(CfNetworkPolicyService.class);
+
     private static final String ADD_NETWORK_POLICY = "Add a network policy to allow communication between applications. Organization and space parameters are optional - if not provided or null, the configured default org/space will be used automatically.";
     private static final String LIST_NETWORK_POLICIES = "List network policies in a Cloud Foundry space. Organization and space parameters are optional - if not provided or null, the configured default org/space will be used automatically.";
     private static final String REMOVE_NETWORK_POLICY = "Remove a network policy between applications. Organization and space parameters are optional - if not provided or null, the configured default org/space will be used automatically.";
+    private static final String ADD_NETWORK_POLICIES = "Add many network policies at once, for example to wire up all the services of an application mesh. Application names are resolved together and the policies are submitted to the networking API in batches rather than one call per policy. Returns the outcome of each policy; one invalid or failing policy does not stop the others. Organization and space parameters are optional - if not provided or null, the configured default org/space will be used automatically.";
+    private static final String REMOVE_NETWORK_POLICIES = "Remove many network policies at once. Application names are resolved together and the policies are submitted to the networking API in batches rather than one call per policy. Returns the outcome of each policy; one invalid or failing policy does not stop the others. Organization and space parameters are optional - if not provided or null, the configured default org/space will be used automatically.";
+    private static final String NETWORK_REACHABILITY = "Find which applications can reach a given application through network policies (INBOUND), or which applications it can reach (OUTBOUND), across every space visible to the configured user. Optionally filter the application's own policies to one port, for example to answer what can reach it on port 8080, and optionally follow policies transitively to find indirect dependencies or dependents. Answered from an index of all policies that is kept in memory and refreshed in the background. Organization and space parameters are optional - if not provided or null, the configured default org/space will be used automatically.";
     
     private static final String SOURCE_APP_PARAM = "Name of the source application that will initiate the network connection";
     private static final String DEST_APP_PARAM = "Name of the destination application that will receive the network connection";
     private static final String PROTOCOL_PARAM = "Network protocol for the policy (tcp or udp)";
     private static final String PORTS_PARAM = "Port or port range for the policy (e.g., '8080' or '8080-8090')";
+    private static final String POLICIES_PARAM = "The policies, each with sourceApp, destinationApp, protocol (tcp or udp) and ports (e.g., '8080' or '8080-8090')";
+    private static final String DIRECTION_PARAM = "INBOUND for the applications that can connect to this application, OUTBOUND for the applications it can connect to";
+    private static final String PORT_PARAM = "Only consider this application's policies that are open on this port. Optional - omit for any port.";
+    private static final String TRANSITIVE_PARAM = "Set to true to keep following policies beyond the direct neighbours. Optional - defaults to false.";
+    private static final String MAX_HOPS_PARAM = "With transitive=true, the maximum number of policies to follow away from the application. Optional - defaults to no limit.";
+
+    private static final Pattern PORT_RANGE = Pattern.compile("(\\d{1,5})\\s*(?:-\\s*(\\d{1,5}))?");
 
-    public CfNetworkPolicyService(CloudFoundryOperationsFactory operationsFactory) {
+    private final SpaceListingCache listingCache;
+    private final NameResolver nameResolver;
+    private final NetworkPolicyGraph policyGraph;
+    private final int batchSize;
+
+    public CfNetworkPolicyService(CloudFoundryOperationsFactory operationsFactory, SpaceListingCache listingCache,
+                                  NameResolver nameResolver, NetworkPolicyGraph policyGraph,
+                                  @Value("${cf.network-policies.batch-size:100}") int batchSize) {
         super(operationsFactory);
+        this.listingCache = listingCache;
+        this.nameResolver = nameResolver;
+        this.policyGraph = policyGraph;
+        this.batchSize = batchSize;
     }
 
     @McpTool(description = ADD_NETWORK_POLICY)
@@ -33,25 +72,22 @@ public class CfNetworkPolicyService extends CfBaseService {
                                 @McpToolParam(description = PORTS_PARAM) String ports,
                                 @McpToolParam(description = ORG_PARAM, required = false) String organization,
                                 @McpToolParam(description = SPACE_PARAM, required = false) String space) {
-        String[] portParts = ports.split("-");
-        Integer startPort = Integer.parseInt(portParts[0]);
-        Integer endPort = portParts.length > 1 ? Integer.parseInt(portParts[1]) : null;
-        
-        AddNetworkPolicyRequest request = AddNetworkPolicyRequest.builder()
-                .source(sourceApp)
-                .destination(destinationApp)
-                .protocol(protocol)
-                .startPort(startPort)
-                .endPort(endPort)
-                .build();
-        getOperations(organization, space).networkPolicies().add(request).blockLast();
+        policy(sourceApp, destinationApp, protocol, ports, organization, space)
+                .flatMap(policy -> operationsFactory.getNetworkingClient().policies()
+                        .create(CreatePoliciesRequest.builder().policy(policy).build())
+                        .then(Mono.fromRunnable(() -> policyGraph.add(policy, sourceApp, destinationApp))))
+                .doOnTerminate(() -> listingCache.invalidate(organization, space))
+                .block();
     }
 
-    @McpTool(description = LIST_NETWORK_POLICIES)
-    public List<Policy> listNetworkPolicies(@McpToolParam(description = ORG_PARAM, required = false) String organization,
-                                           @McpToolParam(description = SPACE_PARAM, required = false) String space) {
+    @McpTool(description = LIST_NETWORK_POLICIES + PAGINATED)
+    public Page<Policy> listNetworkPolicies(@McpToolParam(description = ORG_PARAM, required = false) String organization,
+                                           @McpToolParam(description = SPACE_PARAM, required = false) String space,
+                                           @McpToolParam(description = PAGE_SIZE_PARAM, required = false) Integer pageSize,
+                                           @McpToolParam(description = CURSOR_PARAM, required = false) String cursor) {
         ListNetworkPoliciesRequest request = ListNetworkPoliciesRequest.builder().build();
-        return getOperations(organization, space).networkPolicies().list(request).collectList().block();
+        return listingCache.page(SpaceListingCache.Listing.NETWORK_POLICIES, organization, space, cursor, pageSize,
+                () -> getOperations(organization, space).networkPolicies().list(request).collectList().block());
     }
 
     @McpTool(description = REMOVE_NETWORK_POLICY)
@@ -61,17 +97,200 @@ public class CfNetworkPolicyService extends CfBaseService {
                                    @McpToolParam(description = PORTS_PARAM) String ports,
                                    @McpToolParam(description = ORG_PARAM, required = false) String organization,
                                    @McpToolParam(description = SPACE_PARAM, required = false) String space) {
-        String[] portParts = ports.split("-");
-        Integer startPort = Integer.parseInt(portParts[0]);
-        Integer endPort = portParts.length > 1 ? Integer.parseInt(portParts[1]) : null;
-        
-        RemoveNetworkPolicyRequest request = RemoveNetworkPolicyRequest.builder()
-                .source(sourceApp)
-                .destination(destinationApp)
-                .protocol(protocol)
-                .startPort(startPort)
-                .endPort(endPort)
+        policy(sourceApp, destinationApp, protocol, ports, organization, space)
+                .flatMap(policy -> operationsFactory.getNetworkingClient().policies()
+                        .delete(DeletePoliciesRequest.builder().policy(policy).build())
+                        .then(Mono.fromRunnable(() -> policyGraph.remove(policy))))
+                .doOnTerminate(() -> listingCache.invalidate(organization, space))
+                .block();
+    }
+
+    @McpTool(description = ADD_NETWORK_POLICIES)
+    public BulkPolicyResult addNetworkPolicies(@McpToolParam(description = POLICIES_PARAM) List<NetworkPolicySpec> policies,
+                                               @McpToolParam(description = ORG_PARAM, required = false) String organization,
+                                               @McpToolParam(description = SPACE_PARAM, required = false) String space) {
+        return applyAll(policies, true, organization, space);
+    }
+
+    @McpTool(description = REMOVE_NETWORK_POLICIES)
+    public BulkPolicyResult removeNetworkPolicies(@McpToolParam(description = POLICIES_PARAM) List<NetworkPolicySpec> policies,
+                                                  @McpToolParam(description = ORG_PARAM, required = false) String organization,
+                                                  @McpToolParam(description = SPACE_PARAM, required = false) String space) {
+        return applyAll(policies, false, organization, space);
+    }
+
+    @McpTool(description = NETWORK_REACHABILITY)
+    public NetworkPolicyGraph.Reachability networkReachability(
+            @McpToolParam(description = NAME_PARAM) String applicationName,
+            @McpToolParam(description = DIRECTION_PARAM) NetworkPolicyGraph.Direction direction,
+            @McpToolParam(description = PORT_PARAM, required = false) Integer port,
+            @McpToolParam(description = TRANSITIVE_PARAM, required = false) Boolean transitive,
+            @McpToolParam(description = MAX_HOPS_PARAM, required = false) Integer maxHops,
+            @McpToolParam(description = ORG_PARAM, required = false) String organization,
+            @McpToolParam(description = SPACE_PARAM, required = false) String space) {
+        String applicationId = nameResolver.applicationId(organization, space, applicationName).block();
+        int hops = !Boolean.TRUE.equals(transitive) ? 1 : maxHops != null && maxHops > 0 ? maxHops : Integer.MAX_VALUE;
+        return policyGraph.reachability(applicationName, applicationId, direction, port, hops);
+    }
+
+    /**
+     * Create or delete every policy, reporting each one's outcome in the order given
+     */
+    private BulkPolicyResult applyAll(List<NetworkPolicySpec> specs, boolean add, String organization, String space) {
+        long start = System.nanoTime();
+        PolicyResult[] results = new PolicyResult[specs.size()];
+        Map<String, String> ids = nameResolver.applicationIds(organization, space, specs.stream()
+                .flatMap(spec -> Stream.of(spec.sourceApp(), spec.destinationApp()))
+                .filter(Objects::nonNull)
+                .toList()).block();
+
+        List<Integer> indexes = new ArrayList<>();
+        List<org.cloudfoundry.networking.v1.policies.Policy> policies = new ArrayList<>();
+        for (int i = 0; i < specs.size(); i++) {
+            NetworkPolicySpec spec = specs.get(i);
+            try {
+                policies.add(build(spec.sourceApp(), ids.get(spec.sourceApp()), spec.destinationApp(),
+                        ids.get(spec.destinationApp()), spec.protocol(), spec.ports()));
+                indexes.add(i);
+            } catch (IllegalArgumentException e) {
+                results[i] = new PolicyResult(spec, PolicyStatus.FAILED, e.getMessage());
+            }
+        }
+
+        int requests = 0;
+        try {
+            for (int from = 0; from < policies.size(); from += batchSize) {
+                int to = Math.min(from + batchSize, policies.size());
+                requests++;
+                try {
+                    submit(policies.subList(from, to), add);
+                    for (int i = from; i < to; i++) {
+                        succeeded(specs, indexes.get(i), policies.get(i), add, results);
+                    }
+                } catch (RuntimeException batchError) {
+                    if (to - from == 1) {
+                        results[indexes.get(from)] = new PolicyResult(specs.get(indexes.get(from)), PolicyStatus.FAILED, batchError.getMessage());
+                        continue;
+                    }
+                    // The networking API applies a request all or nothing, so find the policies at fault one by one
+                    logger.warn("Batch of {} network policies failed, retrying them one at a time: {}", to - from, batchError.getMessage());
+                    for (int i = from; i < to; i++) {
+                        int index = indexes.get(i);
+                        requests++;
+                        try {
+                            submit(List.of(policies.get(i)), add);
+                            succeeded(specs, index, policies.get(i), add, results);
+                        } catch (RuntimeException e) {
+                            results[index] = new PolicyResult(specs.get(index), PolicyStatus.FAILED, e.getMessage());
+                        }
+                    }
+                }
+            }
+        } finally {
+            listingCache.invalidate(organization, space);
+        }
+
+        int succeeded = (int) Stream.of(results).filter(result -> result.status() == PolicyStatus.SUCCEEDED).count();
+        logger.info("{} {} of {} network policies in {} requests", add ? "Added" : "Removed", succeeded, specs.size(), requests);
+        return new BulkPolicyResult(succeeded, specs.size() - succeeded, requests,
+                Duration.ofNanos(System.nanoTime() - start).toMillis(), List.of(results));
+    }
+
+    private void submit(List<org.cloudfoundry.networking.v1.policies.Policy> policies, boolean add) {
+        if (add) {
+            operationsFactory.getNetworkingClient().policies()
+                    .create(CreatePoliciesRequest.builder().policies(policies).build())
+                    .block();
+        } else {
+            operationsFactory.getNetworkingClient().policies()
+                    .delete(DeletePoliciesRequest.builder().policies(policies).build())
+                    .block();
+        }
+    }
+
+    private void succeeded(List<NetworkPolicySpec> specs, int index, org.cloudfoundry.networking.v1.policies.Policy policy,
+                           boolean add, PolicyResult[] results) {
+        NetworkPolicySpec spec = specs.get(index);
+        if (add) {
+            policyGraph.add(policy, spec.sourceApp(), spec.destinationApp());
+        } else {
+            policyGraph.remove(policy);
+        }
+        results[index] = new PolicyResult(spec, PolicyStatus.SUCCEEDED, null);
+    }
+
+    /**
+     * Build a policy from application names, using cached GUIDs so a warm call is a single request
+     */
+    private Mono<org.cloudfoundry.networking.v1.policies.Policy> policy(String sourceApp, String destinationApp,
+                                                                       String protocol, String ports,
+                                                                       String organization, String space) {
+        validate(protocol, ports);
+        return Mono.zip(nameResolver.applicationId(organization, space, sourceApp),
+                        nameResolver.applicationId(organization, space, destinationApp))
+                .map(ids -> build(sourceApp, ids.getT1(), destinationApp, ids.getT2(), protocol, ports));
+    }
+
+    /**
+     * Build a policy from resolved GUIDs
+     *
+     * @throws IllegalArgumentException when an application did not resolve or the protocol or ports are invalid
+     */
+    private static org.cloudfoundry.networking.v1.policies.Policy build(String sourceApp, String sourceId,
+                                                                       String destinationApp, String destinationId,
+                                                                       String protocol, String ports) {
+        Ports range = validate(protocol, ports);
+        if (sourceId == null) {
+            throw new IllegalArgumentException("Application " + sourceApp + " does not exist");
+        }
+        if (destinationId == null) {
+            throw new IllegalArgumentException("Application " + destinationApp + " does not exist");
+        }
+        return org.cloudfoundry.networking.v1.policies.Policy.builder()
+                .source(Source.builder().id(sourceId).build())
+                .destination(Destination.builder()
+                        .id(destinationId)
+                        .protocol(protocol.trim().toLowerCase(Locale.ROOT))
+                        .ports(range)
+                        .build())
                 .build();
-        getOperations(organization, space).networkPolicies().remove(request).blockLast();
     }
-}
\ No newline at end of file
+
+    /**
+     * Check the protocol and parse a port or port range such as {@code 8080} or {@code 8080-8090}
+     */
+    private static Ports validate(String protocol, String ports) {
+        if (protocol == null || !Set.of("tcp", "udp").contains(protocol.trim().toLowerCase(Locale.ROOT))) {
+            throw new IllegalArgumentException("Protocol must be tcp or udp, not '" + protocol + "'");
+        }
+        Matcher matcher = PORT_RANGE.matcher(ports != null ? ports.trim() : "");
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Ports must be a port or a range such as 8080 or 8080-8090, not '" + ports + "'");
+        }
+        int startPort = Integer.parseInt(matcher.group(1));
+        int endPort = matcher.group(2) != null ? Integer.parseInt(matcher.group(2)) : startPort;
+        if (startPort < 1 || endPort > 65535 || startPort > endPort) {
+            throw new IllegalArgumentException("Ports must be between 1 and 65535, with the start of a range before its end, not '" + ports + "'");
+        }
+        return Ports.builder().start(startPort).end(endPort).build();
+    }
+
+    /**
+     * A policy to add or remove, by application name
+     */
+    public record NetworkPolicySpec(String sourceApp, String destinationApp, String protocol, String ports) {}
+
+    public enum PolicyStatus { SUCCEEDED, FAILED }
+
+    /**
+     * Outcome of a single policy within a bulk add or remove
+     */
+    public record PolicyResult(NetworkPolicySpec policy, PolicyStatus status, String error) {}
+
+    /**
+     * Outcome of a bulk add or remove, with one result per policy in the order given
+     *
+     * @param requests calls made to the networking API
+     */
+    public record BulkPolicyResult(int succeeded, int failed, int requests, long durationMillis, List<PolicyResult> policies) {}
+}
@@ -1,38 +1,128 @@
 package org.tanzu.cfpulse.cf;
 
-import org.cloudfoundry.operations.CloudFoundryOperations;
+import org.cloudfoundry.client.CloudFoundryClient;
+import org.cloudfoundry.client.v3.ToOneRelationship;
+import org.cloudfoundry.client.v3.applications.ApplicationResource;
+import org.cloudfoundry.client.v3.applications.ListApplicationsRequest;
+import org.cloudfoundry.client.v3.domains.DomainResource;
+import org.cloudfoundry.client.v3.domains.ListDomainsRequest;
+import org.cloudfoundry.client.v3.routes.Application;
+import org.cloudfoundry.client.v3.routes.Destination;
+import org.cloudfoundry.client.v3.routes.InsertRouteDestinationsRequest;
+import org.cloudfoundry.client.v3.routes.ListRouteDestinationsRequest;
+import org.cloudfoundry.client.v3.routes.RemoveRouteDestinationsRequest;
+import org.cloudfoundry.client.v3.routes.RouteRelationships;
+import org.cloudfoundry.client.v3.routes.RouteResource;
+import org.cloudfoundry.client.v3.spaces.ListSpacesRequest;
+import org.cloudfoundry.client.v3.spaces.SpaceResource;
 import org.cloudfoundry.operations.routes.*;
+import org.cloudfoundry.util.JobUtils;
+import org.cloudfoundry.util.PaginationUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springaicommunity.mcp.annotation.McpTool;
 import org.springaicommunity.mcp.annotation.McpToolParam;
+import org.springaicommunity.mcp.context.McpSyncRequestContext;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class CfRouteService extends CfBaseService {
 
+    private static final Logger logger = LoggerFactory.getLogger(CfRouteService.class);
+
     private static final String ROUTE_LIST = "Return the routes in a Cloud Foundry space. Organization and space parameters are optional - if not provided or null, the configured default org/space will be used automatically.";
     private static final String CREATE_ROUTE = "Create a new route in a Cloud Foundry space. Organization and space parameters are optional - if not provided or null, the configured default org/space will be used automatically.";
     private static final String DELETE_ROUTE = "Delete a route in a Cloud Foundry space. Organization and space parameters are optional - if not provided or null, the configured default org/space will be used automatically.";
-    private static final String DELETE_ORPHANED_ROUTES = "Delete all orphaned routes (routes not bound to any applications) in a Cloud Foundry space. Organization and space parameters are optional - if not provided or null, the configured default org/space will be used automatically.";
+    private static final String DELETE_ORPHANED_ROUTES = "Delete all orphaned routes (routes not mapped to any application) in a Cloud Foundry space, or in every space of an organization. Orphans are found in a single pass over the routes, and with dryRun=true they are only listed, so the cleanup can be previewed; routes bound to a route service are listed as BOUND and are never deleted. The other orphans are deleted concurrently up to the given parallelism, and a route mapped to an application since it was listed is kept. Progress is reported as routes are deleted, and one failed deletion does not stop the others. Returns each orphaned route and its outcome. Organization and space parameters are optional - if not provided or null, the configured default org/space will be used automatically.";
     private static final String MAP_ROUTE = "Map a route to a Cloud Foundry application. Organization and space parameters are optional - if not provided or null, the configured default org/space will be used automatically.";
     private static final String UNMAP_ROUTE = "Unmap a route from a Cloud Foundry application. Organization and space parameters are optional - if not provided or null, the configured default org/space will be used automatically.";
+    private static final String LOOKUP_ROUTE = "Find which application serves a URL anywhere on the Cloud Foundry foundation, returning the organization, space and applications of the route that matches it. The hostname is matched exactly and then against wildcard routes of its domain, and the path on its longest matching prefix, the way the router does. Answered from an index of every route visible to the configured user that is rebuilt in the background, so it is fast and does not need the organization or space; an unmapped route is reported with no applications.";
     
     private static final String DOMAIN_PARAM = "The domain name for the route (e.g., apps.example.com)";
     private static final String HOST_PARAM = "The hostname for the route (optional)";
     private static final String PATH_ROUTE_PARAM = "The path for the route (optional)";
     private static final String PORT_PARAM = "The port for the route (optional)";
+    private static final String DRY_RUN_PARAM = "Set to true to list the orphaned routes without deleting them. Optional - defaults to false.";
+    private static final String SCOPE_PARAM = "SPACE to clean up the given space, ORGANIZATION to clean up every space of the organization. Optional - defaults to SPACE.";
+    private static final String CLEANUP_PARALLELISM_PARAM = "Maximum number of routes to delete at the same time (optional)";
+    private static final String URL_PARAM = "The URL to look up, with or without a scheme (e.g., https://myapp.apps.example.com/api/orders)";
+
+    /** The largest page the v3 API serves, so a listing takes as few requests as possible */
+    private static final int MAX_PAGE_SIZE = 5000;
+    private static final int V2_MAX_PAGE_SIZE = 100;
+    /** Domain and application GUIDs looked up per request when naming the routes of a page */
+    private static final int NAME_BATCH_SIZE = 50;
+
+    private static final String ROUTE_FIELDS_PARAM = FIELDS_PARAM + "id, host, domain, path, port, url, type, applications, space";
+
+    private final SpaceListingCache listingCache;
+    private final FieldProjection fieldProjection;
+    private final NameResolver nameResolver;
+    private final RouteIndex routeIndex;
+    private final int defaultCleanupParallelism;
+    private final int maxCleanupParallelism;
+    private final Duration deleteTimeout;
 
-    public CfRouteService(CloudFoundryOperationsFactory operationsFactory) {
+    public CfRouteService(CloudFoundryOperationsFactory operationsFactory, SpaceListingCache listingCache,
+                          FieldProjection fieldProjection, NameResolver nameResolver, RouteIndex routeIndex,
+                          @Value("${cf.routes.cleanup.parallelism:8}") int defaultCleanupParallelism,
+                          @Value("${cf.routes.cleanup.max-parallelism:32}") int maxCleanupParallelism,
+                          @Value("${cf.routes.cleanup.delete-timeout:2m}") Duration deleteTimeout) {
         super(operationsFactory);
+        this.listingCache = listingCache;
+        this.fieldProjection = fieldProjection;
+        this.nameResolver = nameResolver;
+        this.routeIndex = routeIndex;
+        this.defaultCleanupParallelism = defaultCleanupParallelism;
+        this.maxCleanupParallelism = maxCleanupParallelism;
+        this.deleteTimeout = deleteTimeout;
     }
 
-    @McpTool(description = ROUTE_LIST)
-    public List<Route> routesList(
+    @McpTool(description = ROUTE_LIST + PAGINATED)
+    public Page<?> routesList(
             @McpToolParam(description = ORG_PARAM, required = false) String organization,
-            @McpToolParam(description = SPACE_PARAM, required = false) String space) {
-        ListRoutesRequest request = ListRoutesRequest.builder().build();
-        return getOperations(organization, space).routes().list(request).collectList().block();
+            @McpToolParam(description = SPACE_PARAM, required = false) String space,
+            @McpToolParam(description = PAGE_SIZE_PARAM, required = false) Integer pageSize,
+            @McpToolParam(description = CURSOR_PARAM, required = false) String cursor,
+            @McpToolParam(description = ROUTE_FIELDS_PARAM, required = false) String fields) {
+        String targetOrganization = resolveOrganization(organization);
+        String targetSpace = resolveSpace(space);
+        ListingCursor position = ListingCursor.decode(cursor, SpaceListingCache.Listing.ROUTES, targetOrganization, targetSpace);
+        // A cursor keeps the page size it was issued with, as the v3 page numbers depend on it
+        int size = position != null ? position.size() : listingCache.pageSize(pageSize);
+        int pageNumber = position != null ? position.position() : 1;
+        CloudFoundryClient client = operationsFactory.getCloudFoundryClient();
+        Page<RouteSummary> page = nameResolver.spaceId(targetOrganization, targetSpace)
+                .flatMap(spaceId -> client.routesV3().list(org.cloudfoundry.client.v3.routes.ListRoutesRequest.builder()
+                        .spaceId(spaceId)
+                        .page(pageNumber)
+                        .perPage(size)
+                        .build()))
+                .flatMap(response -> summarise(client, response.getResources(), targetSpace)
+                        .map(routes -> {
+                            Integer totalPages = response.getPagination().getTotalPages();
+                            Integer total = response.getPagination().getTotalResults();
+                            String nextCursor = totalPages != null && pageNumber < totalPages
+                                    ? new ListingCursor(SpaceListingCache.Listing.ROUTES, targetOrganization, targetSpace,
+                                            0, pageNumber + 1, size).encode()
+                                    : null;
+                            return new Page<>(routes, total != null ? total : routes.size(), nextCursor);
+                        }))
+                .block();
+        return fieldProjection.project(page, fields);
     }
 
     @McpTool(description = CREATE_ROUTE)
@@ -42,19 +132,15 @@ public class CfRouteService extends CfBaseService {
                            @McpToolParam(description = PORT_PARAM, required = false) Integer port,
                            @McpToolParam(description = ORG_PARAM, required = false) String organization,
                            @McpToolParam(description = SPACE_PARAM, required = false) String space) {
-        CloudFoundryOperations operations = getOperations(organization, space);
-        
-        String targetSpace = space != null ? space : operationsFactory.getDefaultSpace();
-        
-        CreateRouteRequest.Builder builder = CreateRouteRequest.builder()
-                .domain(domain)
-                .space(targetSpace);
-        if (host != null) builder.host(host);
-        if (path != null) builder.path(path);
-        if (port != null) builder.port(port);
-        
-        CreateRouteRequest request = builder.build();
-        operations.routes().create(request).block();
+        CloudFoundryClient client = operationsFactory.getCloudFoundryClient();
+        String targetSpace = resolveSpace(space);
+
+        // Created through v3 so the new route's GUID is known and the route index can find it by id
+        String routeId = Mono.zip(nameResolver.domainId(domain), nameResolver.spaceId(organization, space))
+                .flatMap(ids -> createRoute(client, ids.getT1(), ids.getT2(), host, path, port))
+                .doOnTerminate(() -> listingCache.invalidate(organization, space))
+                .block();
+        routeIndex.created(domain, host, path, port, resolveOrganization(organization), targetSpace, routeId);
     }
 
     @McpTool(description = DELETE_ROUTE)
@@ -70,14 +156,91 @@ public class CfRouteService extends CfBaseService {
         if (port != null) builder.port(port);
         
         DeleteRouteRequest request = builder.build();
-        getOperations(organization, space).routes().delete(request).block();
+        getOperations(organization, space).routes().delete(request)
+                .doOnTerminate(() -> listingCache.invalidate(organization, space))
+                .block();
+        routeIndex.deleted(domain, host, path, port);
     }
 
     @McpTool(description = DELETE_ORPHANED_ROUTES)
-    public void deleteOrphanedRoutes(@McpToolParam(description = ORG_PARAM, required = false) String organization,
-                                    @McpToolParam(description = SPACE_PARAM, required = false) String space) {
-        DeleteOrphanedRoutesRequest request = DeleteOrphanedRoutesRequest.builder().build();
-        getOperations(organization, space).routes().deleteOrphanedRoutes(request).block();
+    public OrphanedRouteCleanup deleteOrphanedRoutes(
+            @McpToolParam(description = ORG_PARAM, required = false) String organization,
+            @McpToolParam(description = SPACE_PARAM, required = false) String space,
+            @McpToolParam(description = DRY_RUN_PARAM, required = false) Boolean dryRun,
+            @McpToolParam(description = SCOPE_PARAM, required = false) RouteScope scope,
+            @McpToolParam(description = CLEANUP_PARALLELISM_PARAM, required = false) Integer parallelism,
+            McpSyncRequestContext context) {
+
+        boolean preview = Boolean.TRUE.equals(dryRun);
+        RouteScope target = scope != null ? scope : RouteScope.SPACE;
+        int concurrency = parallelism != null && parallelism > 0 ? Math.min(parallelism, maxCleanupParallelism) : defaultCleanupParallelism;
+        String targetOrganization = resolveOrganization(organization);
+        CloudFoundryClient client = operationsFactory.getCloudFoundryClient();
+        long start = System.nanoTime();
+
+        String organizationId = nameResolver.organizationId(targetOrganization).block();
+        Map<String, String> spaceNames = spaceNames(client, targetOrganization, organizationId, target == RouteScope.SPACE ? resolveSpace(space) : null);
+        // An organization-wide cleanup filters by organization, so the request stays short however many spaces it has
+        List<RouteResource> orphans = PaginationUtils.requestClientV3Resources(page -> {
+                    org.cloudfoundry.client.v3.routes.ListRoutesRequest.Builder builder =
+                            org.cloudfoundry.client.v3.routes.ListRoutesRequest.builder().perPage(MAX_PAGE_SIZE).page(page);
+                    return client.routesV3().list(target == RouteScope.SPACE
+                            ? builder.spaceIds(List.copyOf(spaceNames.keySet())).build()
+                            : builder.organizationId(organizationId).build());
+                })
+                .filter(route -> route.getDestinations() == null || route.getDestinations().isEmpty())
+                .collectList()
+                .block();
+        logger.info("Found {} orphaned routes in {} space(s) of {}{}", orphans.size(), spaceNames.size(), targetOrganization,
+                preview ? " (dry run)" : "");
+
+        // Routes bound to a route service are left alone, as the cf CLI's delete-orphaned-routes does
+        Set<String> bound = orphans.isEmpty() ? Set.of() : boundToRouteService(client, organizationId);
+        List<RouteResource> deletable = orphans.stream().filter(route -> !bound.contains(route.getId())).toList();
+        List<OrphanedRoute> routes = new ArrayList<>(orphans.size());
+        orphans.stream()
+                .filter(route -> bound.contains(route.getId()))
+                .forEach(route -> routes.add(OrphanedRoute.of(route, spaceNames, RouteCleanupStatus.BOUND, null)));
+        if (preview) {
+            deletable.forEach(route -> routes.add(OrphanedRoute.of(route, spaceNames, RouteCleanupStatus.ORPHANED, null)));
+        } else {
+            context.progress(spec -> spec.progress(0)
+                    .total(deletable.size())
+                    .message("Found " + deletable.size() + " orphaned routes to delete"));
+            try {
+                int done = 0;
+                int deleted = 0;
+                int failed = 0;
+                // Results are consumed on the calling thread so progress is never sent from a reactor I/O thread
+                for (OrphanedRoute cleaned : Flux.fromIterable(deletable)
+                        .flatMap(route -> delete(client, route, spaceNames), concurrency)
+                        .toIterable()) {
+                    routes.add(cleaned);
+                    if (cleaned.status() == RouteCleanupStatus.DELETED) {
+                        deleted++;
+                    } else if (cleaned.status() == RouteCleanupStatus.FAILED) {
+                        failed++;
+                    }
+                    int routesDone = ++done;
+                    int deletedSoFar = deleted;
+                    int failedSoFar = failed;
+                    context.progress(spec -> spec.progress(routesDone)
+                            .total(deletable.size())
+                            .message("Deleted " + deletedSoFar + " of " + deletable.size() + " orphaned routes"
+                                    + (failedSoFar > 0 ? ", " + failedSoFar + " failed" : "")));
+                }
+            } finally {
+                spaceNames.values().forEach(spaceName -> listingCache.invalidate(targetOrganization, spaceName));
+            }
+        }
+
+        List<OrphanedRoute> sorted = routes.stream()
+                .sorted(Comparator.comparing(OrphanedRoute::space).thenComparing(OrphanedRoute::url))
+                .toList();
+        return new OrphanedRouteCleanup(targetOrganization, target == RouteScope.SPACE ? resolveSpace(space) : null, preview,
+                orphans.size(), count(sorted, RouteCleanupStatus.DELETED),
+                count(sorted, RouteCleanupStatus.BOUND) + count(sorted, RouteCleanupStatus.KEPT),
+                count(sorted, RouteCleanupStatus.FAILED), Duration.ofNanos(System.nanoTime() - start).toMillis(), sorted);
     }
 
     @McpTool(description = MAP_ROUTE)
@@ -88,15 +251,23 @@ public class CfRouteService extends CfBaseService {
                         @McpToolParam(description = PORT_PARAM, required = false) Integer port,
                         @McpToolParam(description = ORG_PARAM, required = false) String organization,
                         @McpToolParam(description = SPACE_PARAM, required = false) String space) {
-        MapRouteRequest.Builder builder = MapRouteRequest.builder()
-                .applicationName(applicationName)
-                .domain(domain);
-        if (host != null) builder.host(host);
-        if (path != null) builder.path(path);
-        if (port != null) builder.port(port);
-        
-        MapRouteRequest request = builder.build();
-        getOperations(organization, space).routes().map(request).block();
+        CloudFoundryClient client = operationsFactory.getCloudFoundryClient();
+        nameResolver.withApplicationId(organization, space, applicationName, applicationId -> Mono.zip(
+                                nameResolver.domainId(domain),
+                                nameResolver.spaceId(organization, space))
+                        .flatMap(ids -> findRoute(client, ids.getT1(), ids.getT2(), host, path, port)
+                                .switchIfEmpty(Mono.defer(() -> createRoute(client, ids.getT1(), ids.getT2(), host, path, port))))
+                        .flatMap(routeId -> client.routesV3().insertDestinations(InsertRouteDestinationsRequest.builder()
+                                        .routeId(routeId)
+                                        .destination(Destination.builder()
+                                                .application(Application.builder().applicationId(applicationId).build())
+                                                .build())
+                                        .build())
+                                .thenReturn(routeId))
+                        .doOnNext(routeId -> routeIndex.mapped(domain, host, path, port, resolveOrganization(organization),
+                                resolveSpace(space), routeId, applicationName, applicationId)))
+                .doOnTerminate(() -> listingCache.invalidate(organization, space))
+                .block();
     }
 
     @McpTool(description = UNMAP_ROUTE)
@@ -107,14 +278,218 @@ public class CfRouteService extends CfBaseService {
                           @McpToolParam(description = PORT_PARAM, required = false) Integer port,
                           @McpToolParam(description = ORG_PARAM, required = false) String organization,
                           @McpToolParam(description = SPACE_PARAM, required = false) String space) {
-        UnmapRouteRequest.Builder builder = UnmapRouteRequest.builder()
-                .applicationName(applicationName)
-                .domain(domain);
+        CloudFoundryClient client = operationsFactory.getCloudFoundryClient();
+        nameResolver.withApplicationId(organization, space, applicationName, applicationId -> Mono.zip(
+                                nameResolver.domainId(domain),
+                                nameResolver.spaceId(organization, space))
+                        .flatMap(ids -> findRoute(client, ids.getT1(), ids.getT2(), host, path, port))
+                        .switchIfEmpty(Mono.error(() -> new NoSuchElementException(
+                                "Route " + describeRoute(domain, host, path, port) + " does not exist")))
+                        .flatMapMany(routeId -> client.routesV3().listDestinations(ListRouteDestinationsRequest.builder()
+                                        .routeId(routeId)
+                                        .applicationId(applicationId)
+                                        .build())
+                                .flatMapMany(response -> Flux.fromIterable(response.getDestinations()))
+                                .flatMap(destination -> client.routesV3().removeDestinations(RemoveRouteDestinationsRequest.builder()
+                                        .routeId(routeId)
+                                        .destinationId(destination.getDestinationId())
+                                        .build())))
+                        .then(Mono.fromRunnable(() -> routeIndex.unmapped(domain, host, path, port, applicationId))))
+                .doOnTerminate(() -> listingCache.invalidate(organization, space))
+                .block();
+    }
+
+    @McpTool(description = LOOKUP_ROUTE)
+    public RouteIndex.RouteLookup lookupRoute(@McpToolParam(description = URL_PARAM) String url) {
+        return routeIndex.lookup(url);
+    }
+
+    /**
+     * Name the domains and applications of a page of routes, with one request per batch of GUIDs
+     */
+    private static Mono<List<RouteSummary>> summarise(CloudFoundryClient client, List<RouteResource> routes, String space) {
+        Mono<Map<String, String>> domains = Flux.fromIterable(routes)
+                .map(route -> route.getRelationships().getDomain().getData().getId())
+                .distinct()
+                .buffer(NAME_BATCH_SIZE)
+                .flatMap(ids -> client.domainsV3().list(ListDomainsRequest.builder().domainIds(ids).perPage(ids.size()).build()))
+                .flatMapIterable(response -> response.getResources())
+                .collectMap(DomainResource::getId, DomainResource::getName);
+        Mono<Map<String, String>> applications = Flux.fromIterable(routes)
+                .flatMapIterable(route -> route.getDestinations() != null ? route.getDestinations() : List.<Destination>of())
+                .map(destination -> destination.getApplication().getApplicationId())
+                .distinct()
+                .buffer(NAME_BATCH_SIZE)
+                .flatMap(ids -> client.applicationsV3().list(ListApplicationsRequest.builder().applicationIds(ids).perPage(ids.size()).build()))
+                .flatMapIterable(response -> response.getResources())
+                .collectMap(ApplicationResource::getId, ApplicationResource::getName);
+        return Mono.zip(domains, applications)
+                .map(names -> routes.stream()
+                        .map(route -> RouteSummary.of(route, names.getT1(), names.getT2(), space))
+                        .toList());
+    }
+
+    /**
+     * GUIDs and names of the space to clean up, or of every space of the organization
+     */
+    private Map<String, String> spaceNames(CloudFoundryClient client, String organization, String organizationId, String space) {
+        if (space != null) {
+            String spaceId = nameResolver.spaceId(organization, space).block();
+            return Map.of(spaceId, space);
+        }
+        return PaginationUtils.requestClientV3Resources(page -> client.spacesV3()
+                        .list(ListSpacesRequest.builder()
+                                .organizationId(organizationId)
+                                .perPage(MAX_PAGE_SIZE)
+                                .page(page)
+                                .build()))
+                .collectMap(SpaceResource::getId, SpaceResource::getName)
+                .block();
+    }
+
+    /**
+     * IDs of the routes of the organization that are bound to a route service instance, which v3 does
+     * not expose on the route itself
+     */
+    private static Set<String> boundToRouteService(CloudFoundryClient client, String organizationId) {
+        return PaginationUtils.requestClientV2Resources(page -> client.routes()
+                        .list(org.cloudfoundry.client.v2.routes.ListRoutesRequest.builder()
+                                .organizationId(organizationId)
+                                .resultsPerPage(V2_MAX_PAGE_SIZE)
+                                .page(page)
+                                .build()))
+                .filter(route -> route.getEntity().getServiceInstanceId() != null)
+                .map(route -> route.getMetadata().getId())
+                .collect(Collectors.toSet())
+                .block();
+    }
+
+    /**
+     * Delete an orphaned route, unless an application was mapped to it since it was listed
+     */
+    private Mono<OrphanedRoute> delete(CloudFoundryClient client, RouteResource route, Map<String, String> spaceNames) {
+        return client.routesV3()
+                .get(org.cloudfoundry.client.v3.routes.GetRouteRequest.builder().routeId(route.getId()).build())
+                .flatMap(current -> {
+                    if (current.getDestinations() != null && !current.getDestinations().isEmpty()) {
+                        return Mono.just(OrphanedRoute.of(route, spaceNames, RouteCleanupStatus.KEPT, null));
+                    }
+                    return client.routesV3()
+                            .delete(org.cloudfoundry.client.v3.routes.DeleteRouteRequest.builder().routeId(route.getId()).build())
+                            .flatMap(jobId -> JobUtils.waitForCompletion(client, deleteTimeout, jobId))
+                            .then(Mono.fromSupplier(() -> {
+                                routeIndex.removed(route.getId());
+                                return OrphanedRoute.of(route, spaceNames, RouteCleanupStatus.DELETED, null);
+                            }));
+                })
+                .onErrorResume(error -> {
+                    logger.warn("Could not delete orphaned route {}: {}", route.getUrl(), error.getMessage());
+                    return Mono.just(OrphanedRoute.of(route, spaceNames, RouteCleanupStatus.FAILED, error.getMessage()));
+                });
+    }
+
+    private static int count(List<OrphanedRoute> routes, RouteCleanupStatus status) {
+        return (int) routes.stream().filter(route -> route.status() == status).count();
+    }
+
+    /**
+     * Find the id of the route with exactly this host, path and port. The v3 filters treat a missing
+     * host or path as a wildcard, so every page of the matches is checked.
+     */
+    private Mono<String> findRoute(CloudFoundryClient client, String domainId, String spaceId,
+                                          String host, String path, Integer port) {
+        return PaginationUtils.requestClientV3Resources(page -> {
+                    org.cloudfoundry.client.v3.routes.ListRoutesRequest.Builder builder =
+                            org.cloudfoundry.client.v3.routes.ListRoutesRequest.builder()
+                                    .domainId(domainId)
+                                    .spaceId(spaceId)
+                                    .perPage(MAX_PAGE_SIZE)
+                                    .page(page);
+                    if (host != null) builder.host(host);
+                    if (path != null) builder.path(path);
+                    if (port != null) builder.port(port);
+                    return client.routesV3().list(builder.build());
+                })
+                .filter(route -> Objects.equals(Objects.requireNonNullElse(route.getHost(), ""), Objects.requireNonNullElse(host, ""))
+                        && Objects.equals(Objects.requireNonNullElse(route.getPath(), ""), Objects.requireNonNullElse(path, ""))
+                        && Objects.equals(route.getPort(), port))
+                .next()
+                .map(RouteResource::getId);
+    }
+
+    private Mono<String> createRoute(CloudFoundryClient client, String domainId, String spaceId,
+                                            String host, String path, Integer port) {
+        org.cloudfoundry.client.v3.routes.CreateRouteRequest.Builder builder =
+                org.cloudfoundry.client.v3.routes.CreateRouteRequest.builder()
+                        .relationships(RouteRelationships.builder()
+                                .domain(ToOneRelationship.builder().data(relationship(domainId)).build())
+                                .space(ToOneRelationship.builder().data(relationship(spaceId)).build())
+                                .build());
         if (host != null) builder.host(host);
         if (path != null) builder.path(path);
         if (port != null) builder.port(port);
-        
-        UnmapRouteRequest request = builder.build();
-        getOperations(organization, space).routes().unmap(request).block();
+        return client.routesV3().create(builder.build()).map(route -> route.getId());
     }
-}
\ No newline at end of file
+
+    private static org.cloudfoundry.client.v3.Relationship relationship(String id) {
+        return org.cloudfoundry.client.v3.Relationship.builder().id(id).build();
+    }
+
+    private static String describeRoute(String domain, String host, String path, Integer port) {
+        return (host != null ? host + "." : "") + domain + (port != null ? ":" + port : "") + (path != null ? path : "");
+    }
+
+    /**
+     * A route of a space
+     *
+     * @param type         http or tcp
+     * @param applications names of the applications the route sends traffic to
+     */
+    public record RouteSummary(String id, String host, String domain, String path, Integer port, String url,
+                               String type, List<String> applications, String space) {
+
+        private static RouteSummary of(RouteResource route, Map<String, String> domains, Map<String, String> applications,
+                                       String space) {
+            String domainId = route.getRelationships().getDomain().getData().getId();
+            List<String> mapped = route.getDestinations() == null ? List.of() : route.getDestinations().stream()
+                    .map(destination -> destination.getApplication().getApplicationId())
+                    .distinct()
+                    .map(id -> applications.getOrDefault(id, id))
+                    .toList();
+            return new RouteSummary(route.getId(), route.getHost(), domains.getOrDefault(domainId, domainId), route.getPath(),
+                    route.getPort(), route.getUrl(), route.getProtocol() != null ? route.getProtocol().getValue() : null,
+                    mapped, space);
+        }
+    }
+
+    public enum RouteScope { SPACE, ORGANIZATION }
+
+    /**
+     * ORPHANED: would be deleted (dry run only); BOUND: bound to a route service, so never deleted;
+     * KEPT: mapped to an application since it was listed, so not deleted
+     */
+    public enum RouteCleanupStatus { ORPHANED, BOUND, DELETED, KEPT, FAILED }
+
+    /**
+     * An orphaned route and what happened to it
+     */
+    public record OrphanedRoute(String url, String space, RouteCleanupStatus status, String error) {
+
+        private static OrphanedRoute of(RouteResource route, Map<String, String> spaceNames, RouteCleanupStatus status, String error) {
+            String spaceId = route.getRelationships().getSpace().getData().getId();
+            return new OrphanedRoute(route.getUrl(), spaceNames.getOrDefault(spaceId, spaceId), status, error);
+        }
+    }
+
+    /**
+     * Outcome of an orphaned route cleanup
+     *
+     * @param space  the space cleaned up, or null when the whole organization was
+     * @param dryRun whether the routes were only listed
+     * @param found  orphaned routes found
+     * @param kept   orphaned routes left in place, bound to a route service or mapped meanwhile
+     * @param routes each orphaned route, by space and URL
+     */
+    public record OrphanedRouteCleanup(String organization, String space, boolean dryRun, int found, int deleted,
+                                       int kept, int failed, long durationMillis, List<OrphanedRoute> routes) {}
+}
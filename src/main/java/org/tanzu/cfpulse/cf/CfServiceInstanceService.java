@@ -19,24 +19,42 @@ public class CfServiceInstanceService extends CfBaseService {
     
     private static final String SI_NAME_PARAM = "Name of the Cloud Foundry service instance";
 
-    public CfServiceInstanceService(CloudFoundryOperationsFactory operationsFactory) {
+    private static final String SUMMARY_FIELDS_PARAM = FIELDS_PARAM + "id, name, service, plan, type, applications, lastOperation, tags, maintenanceInfo";
+    private static final String DETAIL_FIELDS_PARAM = FIELDS_PARAM + "id, name, service, plan, type, applications, status, message, lastOperation, startedAt, updatedAt, description, dashboardUrl, documentationUrl, tags, maintenanceInfo";
+
+    private final SpaceListingCache listingCache;
+    private final FieldProjection fieldProjection;
+    private final NameResolver nameResolver;
+
+    public CfServiceInstanceService(CloudFoundryOperationsFactory operationsFactory, SpaceListingCache listingCache,
+                                    FieldProjection fieldProjection, NameResolver nameResolver) {
         super(operationsFactory);
+        this.listingCache = listingCache;
+        this.fieldProjection = fieldProjection;
+        this.nameResolver = nameResolver;
     }
 
-    @McpTool(description = SERVICE_INSTANCE_LIST)
-    public List<ServiceInstanceSummary> serviceInstancesList(
+    @McpTool(description = SERVICE_INSTANCE_LIST + PAGINATED)
+    public Page<?> serviceInstancesList(
             @McpToolParam(description = ORG_PARAM, required = false) String organization,
-            @McpToolParam(description = SPACE_PARAM, required = false) String space) {
-        return getOperations(organization, space).services().listInstances().collectList().block();
+            @McpToolParam(description = SPACE_PARAM, required = false) String space,
+            @McpToolParam(description = PAGE_SIZE_PARAM, required = false) Integer pageSize,
+            @McpToolParam(description = CURSOR_PARAM, required = false) String cursor,
+            @McpToolParam(description = SUMMARY_FIELDS_PARAM, required = false) String fields) {
+        Page<ServiceInstanceSummary> page = listingCache.page(SpaceListingCache.Listing.SERVICE_INSTANCES, organization,
+                space, cursor, pageSize, () -> getOperations(organization, space).services().listInstances().collectList().block());
+        return fieldProjection.project(page, fields);
     }
 
     @McpTool(description = SERVICE_INSTANCE_DETAIL)
-    public ServiceInstance serviceInstanceDetails(
+    public Object serviceInstanceDetails(
             @McpToolParam(description = SI_NAME_PARAM) String serviceInstanceName,
             @McpToolParam(description = ORG_PARAM, required = false) String organization,
-            @McpToolParam(description = SPACE_PARAM, required = false) String space) {
+            @McpToolParam(description = SPACE_PARAM, required = false) String space,
+            @McpToolParam(description = DETAIL_FIELDS_PARAM, required = false) String fields) {
         GetServiceInstanceRequest request = GetServiceInstanceRequest.builder().name(serviceInstanceName).build();
-        return getOperations(organization, space).services().getInstance(request).block();
+        ServiceInstance instance = getOperations(organization, space).services().getInstance(request).block();
+        return fieldProjection.project(instance, fields);
     }
 
     @McpTool(description = SERVICE_OFFERINGS_LIST)
@@ -56,7 +74,9 @@ public class CfServiceInstanceService extends CfBaseService {
                 serviceInstanceName(serviceInstanceName).
                 applicationName(applicationName).
                 build();
-        getOperations(organization, space).services().bind(request).block();
+        getOperations(organization, space).services().bind(request)
+                .doOnTerminate(() -> listingCache.invalidate(organization, space))
+                .block();
     }
 
     @McpTool(description = UNBIND_SERVICE_INSTANCE)
@@ -68,7 +88,9 @@ public class CfServiceInstanceService extends CfBaseService {
                 serviceInstanceName(serviceInstanceName).
                 applicationName(applicationName).
                 build();
-        getOperations(organization, space).services().unbind(request).block();
+        getOperations(organization, space).services().unbind(request)
+                .doOnTerminate(() -> listingCache.invalidate(organization, space))
+                .block();
     }
 
     @McpTool(description = DELETE_SERVICE_INSTANCE)
@@ -78,6 +100,11 @@ public class CfServiceInstanceService extends CfBaseService {
         DeleteServiceInstanceRequest request = DeleteServiceInstanceRequest.builder().
                 name(serviceInstanceName).
                 build();
-        getOperations(organization, space).services().deleteInstance(request).block();
+        getOperations(organization, space).services().deleteInstance(request)
+                .doOnTerminate(() -> {
+                    listingCache.invalidate(organization, space);
+                    nameResolver.invalidateServiceInstance(organization, space, serviceInstanceName);
+                })
+                .block();
     }
 }
\ No newline at end of file
@@ -26,8 +26,14 @@ public class CfSpaceService extends CfBaseService {
     private static final String SPACE_QUOTA_PARAM = "Name of the space quota to apply to the new space (optional)";
     private static final String NEW_SPACE_NAME_PARAM = "New name for the Cloud Foundry space";
 
-    public CfSpaceService(CloudFoundryOperationsFactory operationsFactory) {
+    private final SpaceListingCache listingCache;
+    private final NameResolver nameResolver;
+
+    public CfSpaceService(CloudFoundryOperationsFactory operationsFactory, SpaceListingCache listingCache,
+                          NameResolver nameResolver) {
         super(operationsFactory);
+        this.listingCache = listingCache;
+        this.nameResolver = nameResolver;
     }
 
     @McpTool(description = SPACE_LIST)
@@ -62,7 +68,13 @@ public class CfSpaceService extends CfBaseService {
     public void deleteSpace(@McpToolParam(description = SPACE_NAME_PARAM) String spaceName,
                            @McpToolParam(description = ORG_PARAM, required = false) String organization) {
         DeleteSpaceRequest request = DeleteSpaceRequest.builder().name(spaceName).build();
-        getOperations(organization, null).spaces().delete(request).block();
+        getOperations(organization, null).spaces().delete(request)
+                .doOnTerminate(() -> {
+                    listingCache.invalidate(organization, spaceName);
+                    operationsFactory.invalidate(organization, spaceName);
+                    nameResolver.invalidateSpace(organization, spaceName);
+                })
+                .block();
     }
 
     @McpTool(description = RENAME_SPACE)
@@ -73,6 +85,12 @@ public class CfSpaceService extends CfBaseService {
                 .name(currentSpaceName)
                 .newName(newSpaceName)
                 .build();
-        getOperations(organization, null).spaces().rename(request).block();
+        getOperations(organization, null).spaces().rename(request)
+                .doOnTerminate(() -> {
+                    listingCache.invalidate(organization, currentSpaceName);
+                    operationsFactory.invalidate(organization, currentSpaceName);
+                    nameResolver.invalidateSpace(organization, currentSpaceName);
+                })
+                .block();
     }
 }
\ No newline at end of file
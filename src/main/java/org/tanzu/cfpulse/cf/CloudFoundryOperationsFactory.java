@@ -1,5 +1,11 @@
 package org.tanzu.cfpulse.cf;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.cloudfoundry.client.CloudFoundryClient;
 import org.cloudfoundry.doppler.DopplerClient;
 import org.cloudfoundry.networking.NetworkingClient;
@@ -11,8 +17,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class CloudFoundryOperationsFactory {
@@ -26,22 +32,39 @@ public class CloudFoundryOperationsFactory {
     private final String defaultOrganization;
     private final String defaultSpace;
     
-    private final ConcurrentHashMap<String, CloudFoundryOperations> operationsCache;
+    private final Cache<String, CloudFoundryOperations> operationsCache;
+    private final Timer creationTimer;
     private volatile CloudFoundryOperations defaultOperations;
 
     public CloudFoundryOperationsFactory(CloudFoundryClient cloudFoundryClient,
                                        DopplerClient dopplerClient,
                                        UaaClient uaaClient,
                                        NetworkingClient networkingClient,
+                                       MeterRegistry meterRegistry,
                                        @Value("${cf.organization}") String defaultOrganization,
-                                       @Value("${cf.space}") String defaultSpace) {
+                                       @Value("${cf.space}") String defaultSpace,
+                                       @Value("${cf.cache.operations.max-size:256}") long maxSize,
+                                       @Value("${cf.cache.operations.idle-expiry:30m}") Duration idleExpiry) {
         this.cloudFoundryClient = cloudFoundryClient;
         this.dopplerClient = dopplerClient;
         this.uaaClient = uaaClient;
         this.networkingClient = networkingClient;
         this.defaultOrganization = defaultOrganization;
         this.defaultSpace = defaultSpace;
-        this.operationsCache = new ConcurrentHashMap<>();
+        this.operationsCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(idleExpiry)
+                .recordStats()
+                .removalListener((String key, CloudFoundryOperations operations, RemovalCause cause) -> {
+                    if (cause.wasEvicted()) {
+                        logger.debug("Evicted CloudFoundryOperations for {} ({})", key, cause);
+                    }
+                })
+                .build();
+        this.creationTimer = Timer.builder("cf.operations.creation")
+                .description("Time taken to create a CloudFoundryOperations context")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, operationsCache, "cf.operations");
     }
 
     public CloudFoundryOperations getDefaultOperations() {
@@ -50,7 +73,7 @@ public class CloudFoundryOperationsFactory {
                 if (defaultOperations == null) {
                     logger.debug("Creating default CloudFoundryOperations for org={}, space={}", 
                                defaultOrganization, defaultSpace);
-                    defaultOperations = createOperations(defaultOrganization, defaultSpace);
+                    defaultOperations = creationTimer.record(() -> createOperations(defaultOrganization, defaultSpace));
                 }
             }
         }
@@ -66,27 +89,58 @@ public class CloudFoundryOperationsFactory {
         }
         
         String cacheKey = createCacheKey(resolvedOrg, resolvedSpace);
-        return operationsCache.computeIfAbsent(cacheKey, key -> {
+        return operationsCache.get(cacheKey, key -> {
             logger.debug("Creating new CloudFoundryOperations for org={}, space={}", 
                        resolvedOrg, resolvedSpace);
-            return createOperations(resolvedOrg, resolvedSpace);
+            return creationTimer.record(() -> createOperations(resolvedOrg, resolvedSpace));
         });
     }
 
+    public void invalidate(String organization, String space) {
+        String resolvedOrg = organization != null ? organization : defaultOrganization;
+        String resolvedSpace = space != null ? space : defaultSpace;
+
+        if (resolvedOrg.equals(defaultOrganization) && resolvedSpace.equals(defaultSpace)) {
+            synchronized (this) {
+                defaultOperations = null;
+            }
+            return;
+        }
+
+        logger.debug("Invalidating CloudFoundryOperations for org={}, space={}", resolvedOrg, resolvedSpace);
+        operationsCache.invalidate(createCacheKey(resolvedOrg, resolvedSpace));
+    }
+
     public void clearCache() {
-        logger.info("Clearing CloudFoundryOperations cache containing {} entries", operationsCache.size());
-        operationsCache.clear();
+        logger.info("Clearing CloudFoundryOperations cache containing {} entries", operationsCache.estimatedSize());
+        operationsCache.invalidateAll();
         synchronized (this) {
             defaultOperations = null;
         }
     }
 
     public Set<String> getCachedContexts() {
-        return Set.copyOf(operationsCache.keySet());
+        return Set.copyOf(operationsCache.asMap().keySet());
     }
 
     public int getCacheSize() {
-        return operationsCache.size();
+        return (int) operationsCache.estimatedSize();
+    }
+
+    public CloudFoundryClient getCloudFoundryClient() {
+        return cloudFoundryClient;
+    }
+
+    public DopplerClient getDopplerClient() {
+        return dopplerClient;
+    }
+
+    public NetworkingClient getNetworkingClient() {
+        return networkingClient;
+    }
+
+    public String getDefaultOrganization() {
+        return defaultOrganization;
     }
 
     public String getDefaultSpace() {
@@ -0,0 +1,89 @@
+package org.tanzu.cfpulse.cf;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reduces tool results to the fields an agent asked for. Only the accessors of the requested
+ * properties are invoked, and the result is a small map, so unrequested fields are never serialized.
+ * Property names are those Jackson would write for the full object.
+ */
+@Component
+public class FieldProjection {
+
+    private final ObjectMapper objectMapper;
+    private final Map<Class<?>, Map<String, AnnotatedMember>> accessors = new ConcurrentHashMap<>();
+
+    public FieldProjection(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Project every item of a page, or return the page unchanged when no fields are requested
+     */
+    public Page<?> project(Page<?> page, String fields) {
+        List<String> names = parse(fields);
+        if (names.isEmpty()) {
+            return page;
+        }
+        return new Page<>(page.items().stream().map(item -> select(item, names)).toList(),
+                page.total(), page.nextCursor());
+    }
+
+    /**
+     * Project a single result, or return it unchanged when no fields are requested
+     */
+    public Object project(Object value, String fields) {
+        List<String> names = parse(fields);
+        return names.isEmpty() || value == null ? value : select(value, names);
+    }
+
+    private Map<String, Object> select(Object value, List<String> names) {
+        Map<String, AnnotatedMember> properties = properties(value.getClass());
+        Map<String, Object> projected = new LinkedHashMap<>();
+        for (String name : names) {
+            AnnotatedMember accessor = properties.get(name);
+            if (accessor == null) {
+                throw new IllegalArgumentException("Unknown field '" + name + "' for " + value.getClass().getSimpleName()
+                        + ". Available fields: " + String.join(", ", properties.keySet()));
+            }
+            projected.put(name, accessor.getValue(value));
+        }
+        return projected;
+    }
+
+    private Map<String, AnnotatedMember> properties(Class<?> type) {
+        return accessors.computeIfAbsent(type, key -> {
+            BeanDescription description = objectMapper.getSerializationConfig()
+                    .introspect(objectMapper.constructType(key));
+            Map<String, AnnotatedMember> properties = new LinkedHashMap<>();
+            for (BeanPropertyDefinition property : description.findProperties()) {
+                if (property.getAccessor() != null) {
+                    properties.put(property.getName(), property.getAccessor());
+                }
+            }
+            return Collections.unmodifiableMap(properties);
+        });
+    }
+
+    private static List<String> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .distinct()
+                .toList();
+    }
+}
@@ -0,0 +1,195 @@
+package org.tanzu.cfpulse.cf;
+
+import org.cloudfoundry.client.CloudFoundryClient;
+import org.cloudfoundry.client.v2.applications.Resource;
+import org.cloudfoundry.client.v2.applications.UpdateApplicationRequest;
+import org.cloudfoundry.client.v2.applications.UploadApplicationRequest;
+import org.cloudfoundry.client.v2.resourcematch.ListMatchingResourcesRequest;
+import org.cloudfoundry.util.JobUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.zip.ZipException;
+
+/**
+ * Pushes new bits to an existing application by uploading only the archive entries the foundation
+ * does not already hold. Entries are fingerprinted through the {@link ArtifactFingerprintCache},
+ * checked against the resource match API, and the unmatched ones are copied into the upload
+ * without being recompressed. Everything else is sent as a reference to the matched resource.
+ * Artifacts that are not zip archives, such as directories, are uploaded in full instead.
+ */
+@Component
+public class IncrementalPush {
+
+    private static final Logger logger = LoggerFactory.getLogger(IncrementalPush.class);
+
+    private static final Duration UPLOAD_TIMEOUT = Duration.ofMinutes(5);
+
+    private final CloudFoundryOperationsFactory operationsFactory;
+    private final NameResolver nameResolver;
+    private final ArtifactFingerprintCache fingerprintCache;
+
+    public IncrementalPush(CloudFoundryOperationsFactory operationsFactory, NameResolver nameResolver,
+                           ArtifactFingerprintCache fingerprintCache) {
+        this.operationsFactory = operationsFactory;
+        this.nameResolver = nameResolver;
+        this.fingerprintCache = fingerprintCache;
+    }
+
+    /**
+     * Apply the given attributes to an existing application and upload {@code artifact} as its new
+     * bits, stopping the application first unless {@code keepRunning} is set. Emits {@code false}
+     * without changing anything when the application does not exist yet, leaving the caller to do a
+     * full push. The artifact is fingerprinted before the application is touched, and one that is not
+     * a zip archive is uploaded in full, so the application is never stopped when it should keep running.
+     */
+    public Mono<Boolean> pushExisting(String applicationName, Path artifact, String buildpack, Integer memory,
+                                      Integer disk, String organization, String space, boolean keepRunning) {
+        CloudFoundryClient client = operationsFactory.getCloudFoundryClient();
+        return nameResolver.withApplicationId(organization, space, applicationName,
+                        id -> fingerprints(artifact)
+                                .map(entries -> upload(client, id, applicationName, artifact, entries))
+                                .defaultIfEmpty(Mono.defer(() -> uploadInFull(client, id, applicationName, artifact)))
+                                .flatMap(upload -> client.applicationsV2()
+                                        .update(UpdateApplicationRequest.builder()
+                                                .applicationId(id)
+                                                .buildpack(buildpack)
+                                                .memory(memory)
+                                                .diskQuota(disk)
+                                                .state(keepRunning ? null : "STOPPED")
+                                                .build())
+                                        .then(upload))
+                                .thenReturn(true))
+                // The application does not exist, or no longer does
+                .onErrorResume(NoSuchElementException.class, e -> Mono.just(false));
+    }
+
+    /**
+     * Fingerprints of the artifact's entries, or nothing when it is a directory or not a zip archive
+     */
+    private Mono<List<ArtifactFingerprintCache.ArtifactEntry>> fingerprints(Path artifact) {
+        if (!Files.isRegularFile(artifact)) {
+            return Mono.empty();
+        }
+        return Mono.fromCallable(() -> fingerprintCache.fingerprints(artifact))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(ZipException.class, e -> {
+                    logger.info("{} is not a zip archive ({}), uploading it in full", artifact, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Upload the whole artifact without matching resources; the client zips a directory on the way
+     */
+    private static Mono<Void> uploadInFull(CloudFoundryClient client, String applicationId, String applicationName,
+                                           Path artifact) {
+        return client.applicationsV2()
+                .upload(UploadApplicationRequest.builder()
+                        .applicationId(applicationId)
+                        .application(artifact)
+                        .async(true)
+                        .build())
+                .flatMap(response -> JobUtils.waitForCompletion(client, UPLOAD_TIMEOUT, response))
+                .doOnSuccess(v -> logger.info("Pushed {}: uploaded {} in full", applicationName, artifact));
+    }
+
+    private Mono<Void> upload(CloudFoundryClient client, String applicationId, String applicationName, Path artifact,
+                              List<ArtifactFingerprintCache.ArtifactEntry> entries) {
+        return matchedHashes(client, entries)
+                .flatMap(matched -> Mono.fromCallable(() -> writeUnmatched(artifact, entries, matched))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .flatMap(bits -> client.applicationsV2()
+                                .upload(UploadApplicationRequest.builder()
+                                        .applicationId(applicationId)
+                                        .application(bits)
+                                        .resources(matchedResources(entries, matched))
+                                        .async(true)
+                                        .build())
+                                .flatMap(response -> JobUtils.waitForCompletion(client, UPLOAD_TIMEOUT, response))
+                                .doOnSuccess(v -> logUpload(applicationName, entries, matched, bits))
+                                .doFinally(signal -> deleteQuietly(bits))));
+    }
+
+    private static Mono<Set<String>> matchedHashes(CloudFoundryClient client, List<ArtifactFingerprintCache.ArtifactEntry> entries) {
+        return client.resourceMatch()
+                .list(ListMatchingResourcesRequest.builder()
+                        .resources(entries.stream()
+                                .map(entry -> org.cloudfoundry.client.v2.resourcematch.Resource.builder()
+                                        .hash(entry.hash())
+                                        .size(entry.size())
+                                        .build())
+                                .toList())
+                        .build())
+                .map(response -> response.getResources().stream()
+                        .map(org.cloudfoundry.client.v2.resourcematch.Resource::getHash)
+                        .collect(Collectors.toUnmodifiableSet()));
+    }
+
+    private static List<Resource> matchedResources(List<ArtifactFingerprintCache.ArtifactEntry> entries, Set<String> matched) {
+        return entries.stream()
+                .filter(entry -> matched.contains(entry.hash()))
+                .map(entry -> Resource.builder()
+                        .hash(entry.hash())
+                        .path(entry.path())
+                        .size(entry.size())
+                        .mode(entry.mode())
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Copy the entries the foundation does not hold into a new archive, reusing their compressed form
+     */
+    private static Path writeUnmatched(Path artifact, List<ArtifactFingerprintCache.ArtifactEntry> entries,
+                                       Set<String> matched) throws IOException {
+        Set<String> matchedPaths = entries.stream()
+                .filter(entry -> matched.contains(entry.hash()))
+                .map(ArtifactFingerprintCache.ArtifactEntry::path)
+                .collect(Collectors.toSet());
+        Path bits = Files.createTempFile("cf-push-", ".zip");
+        try (MappedArchive archive = MappedArchive.open(artifact)) {
+            archive.writeEntries(bits, path -> !matchedPaths.contains(path));
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(bits);
+            throw e;
+        }
+        return bits;
+    }
+
+    private static void logUpload(String applicationName, List<ArtifactFingerprintCache.ArtifactEntry> entries,
+                                  Set<String> matched, Path bits) {
+        long totalBytes = entries.stream().mapToLong(ArtifactFingerprintCache.ArtifactEntry::size).sum();
+        long matchedBytes = entries.stream()
+                .filter(entry -> matched.contains(entry.hash()))
+                .mapToLong(ArtifactFingerprintCache.ArtifactEntry::size)
+                .sum();
+        long uploadedBytes;
+        try {
+            uploadedBytes = Files.size(bits);
+        } catch (IOException e) {
+            uploadedBytes = -1;
+        }
+        logger.info("Pushed {}: {} of {} bytes matched on the foundation, uploaded {} bytes",
+                applicationName, matchedBytes, totalBytes, uploadedBytes);
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Could not delete {}", path, e);
+        }
+    }
+}
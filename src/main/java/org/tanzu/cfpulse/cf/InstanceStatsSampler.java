@@ -0,0 +1,272 @@
+package org.tanzu.cfpulse.cf;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.cloudfoundry.client.v3.applications.GetApplicationProcessStatisticsRequest;
+import org.cloudfoundry.client.v3.processes.ProcessState;
+import org.cloudfoundry.client.v3.processes.ProcessStatisticsResource;
+import org.cloudfoundry.client.v3.processes.ProcessUsage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Samples the instance stats of chosen applications in the background, so trends can be read back
+ * without calling the foundation again. Each tracked application gets a {@link StatsSeries} sized
+ * when tracking starts, and the number of tracked applications is capped, so the sampler's memory
+ * is bounded by configuration alone. A sample records, across the running web instances, the
+ * highest CPU, memory and disk use and the number of instances running.
+ */
+@Component
+public class InstanceStatsSampler implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(InstanceStatsSampler.class);
+
+    /** Width of each resolution as a multiple of the sampling interval: every sample, 6 and 90 */
+    private static final int[] RESOLUTIONS = {1, 6, 90};
+
+    private final CloudFoundryOperationsFactory operationsFactory;
+    private final NameResolver nameResolver;
+    private final Duration interval;
+    private final int points;
+    private final int maxTracked;
+    private final Scheduler scheduler = Schedulers.newSingle("cf-stats-sampler", true);
+    private final ConcurrentMap<Key, Tracked> tracked = new ConcurrentHashMap<>();
+    /** Tracking slots taken, reserved before a series is allocated so concurrent calls cannot exceed the limit */
+    private final AtomicInteger slots = new AtomicInteger();
+
+    public InstanceStatsSampler(CloudFoundryOperationsFactory operationsFactory, NameResolver nameResolver,
+                                MeterRegistry meterRegistry,
+                                @Value("${cf.stats.interval:10s}") Duration interval,
+                                @Value("${cf.stats.points:360}") int points,
+                                @Value("${cf.stats.max-tracked:50}") int maxTracked) {
+        this.operationsFactory = operationsFactory;
+        this.nameResolver = nameResolver;
+        this.interval = interval;
+        this.points = points;
+        this.maxTracked = maxTracked;
+        Gauge.builder("cf.stats.tracked", tracked, ConcurrentMap::size)
+                .description("Applications whose instance stats are being sampled")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Start sampling an application, or return its status when it is already tracked
+     *
+     * @throws IllegalStateException when the limit of tracked applications has been reached
+     */
+    public TrackingStatus track(String organization, String space, String applicationName) {
+        Key key = new Key(organization, space, applicationName);
+        Tracked existing = tracked.get(key);
+        if (existing != null) {
+            return existing.status();
+        }
+        if (slots.getAndUpdate(taken -> taken < maxTracked ? taken + 1 : taken) >= maxTracked) {
+            throw new IllegalStateException("Already sampling " + maxTracked + " applications; stop tracking one first");
+        }
+        Tracked created;
+        boolean inserted = false;
+        try {
+            // Fail now if the application does not exist; samples resolve its GUID again as they go
+            nameResolver.applicationId(organization, space, applicationName).block();
+            created = new Tracked(key, new StatsSeries(interval.toMillis(), points, RESOLUTIONS));
+            existing = tracked.putIfAbsent(key, created);
+            if (existing != null) {
+                return existing.status();
+            }
+            inserted = true;
+        } finally {
+            if (!inserted) {
+                slots.decrementAndGet();
+            }
+        }
+        // Sampling stops by itself once the entry is removed, even if that happens before it is disposed
+        created.sampling = Flux.interval(Duration.ZERO, interval, scheduler)
+                .onBackpressureDrop()
+                .takeWhile(tick -> tracked.get(key) == created)
+                .concatMap(tick -> sample(created), 1)
+                .subscribe();
+        logger.info("Sampling instance stats of {} every {}", key, interval);
+        return created.status();
+    }
+
+    public void untrack(String organization, String space, String applicationName) {
+        Tracked removed = tracked.remove(new Key(organization, space, applicationName));
+        if (removed == null) {
+            throw new NoSuchElementException("Instance stats of " + applicationName + " are not being sampled");
+        }
+        slots.decrementAndGet();
+        Disposable sampling = removed.sampling;
+        if (sampling != null) {
+            sampling.dispose();
+        }
+        logger.info("Stopped sampling instance stats of {}", removed.key);
+    }
+
+    public List<TrackingStatus> list() {
+        return tracked.values().stream()
+                .map(Tracked::status)
+                .sorted(Comparator.comparing(TrackingStatus::trackedSince))
+                .toList();
+    }
+
+    /**
+     * Summarise the samples of the last {@code window} from memory, without calling the foundation
+     */
+    public InstanceStats query(String organization, String space, String applicationName, Duration window) {
+        Tracked entry = tracked.get(new Key(organization, space, applicationName));
+        if (entry == null) {
+            throw new NoSuchElementException("Instance stats of " + applicationName
+                    + " are not being sampled; start tracking the application first");
+        }
+        long now = System.currentTimeMillis();
+        StatsSeries.Summary summary = entry.series.summarise(now - window.toMillis(), now);
+        long latestAt = entry.series.latestAt();
+        return new InstanceStats(applicationName, Instant.ofEpochMilli(now - window.toMillis()), Instant.ofEpochMilli(now),
+                Duration.ofMillis(summary.resolution()).toSeconds(), summary.points(),
+                latestAt >= 0 ? Instant.ofEpochMilli(latestAt) : null, summary.metrics());
+    }
+
+    @Override
+    public void destroy() {
+        tracked.clear();
+        slots.set(0);
+        scheduler.dispose();
+    }
+
+    /**
+     * Take one sample. The GUID comes from the name cache, so an application recreated while it is
+     * tracked is followed to its new GUID.
+     */
+    private Mono<Void> sample(Tracked entry) {
+        Key key = entry.key;
+        return nameResolver.withApplicationId(key.organization(), key.space(), key.applicationName(),
+                        applicationId -> operationsFactory.getCloudFoundryClient().applicationsV3()
+                                .getProcessStatistics(GetApplicationProcessStatisticsRequest.builder()
+                                        .applicationId(applicationId)
+                                        .type("web")
+                                        .build()))
+                .doOnNext(response -> {
+                    entry.series.add(System.currentTimeMillis(), values(response.getResources()));
+                    entry.samples.incrementAndGet();
+                    entry.lastError = null;
+                })
+                .doOnError(error -> {
+                    entry.lastError = error.getMessage();
+                    logger.warn("Could not sample instance stats of {}: {}", entry.key, error.getMessage());
+                })
+                .onErrorResume(error -> Mono.empty())
+                .then();
+    }
+
+    private static double[] values(List<ProcessStatisticsResource> instances) {
+        double[] values = new double[Metric.values().length];
+        for (ProcessStatisticsResource instance : instances) {
+            ProcessUsage usage = instance.getUsage();
+            if (instance.getState() != ProcessState.RUNNING || usage == null) {
+                continue;
+            }
+            values[Metric.RUNNING_INSTANCES.ordinal()]++;
+            if (usage.getCpu() != null) {
+                values[Metric.CPU_PERCENT.ordinal()] = Math.max(values[Metric.CPU_PERCENT.ordinal()], usage.getCpu() * 100);
+            }
+            if (usage.getMemory() != null) {
+                values[Metric.MEMORY_MB.ordinal()] = Math.max(values[Metric.MEMORY_MB.ordinal()], usage.getMemory() / 1048576.0);
+                if (instance.getMemoryQuota() != null && instance.getMemoryQuota() > 0) {
+                    values[Metric.MEMORY_QUOTA_PERCENT.ordinal()] = Math.max(values[Metric.MEMORY_QUOTA_PERCENT.ordinal()],
+                            100.0 * usage.getMemory() / instance.getMemoryQuota());
+                }
+            }
+            if (usage.getDisk() != null) {
+                values[Metric.DISK_MB.ordinal()] = Math.max(values[Metric.DISK_MB.ordinal()], usage.getDisk() / 1048576.0);
+            }
+        }
+        return values;
+    }
+
+    public enum Metric { CPU_PERCENT, MEMORY_MB, MEMORY_QUOTA_PERCENT, DISK_MB, RUNNING_INSTANCES }
+
+    /**
+     * @param applicationName the tracked application
+     * @param organization    its organization
+     * @param space           its space
+     * @param trackedSince    when sampling started
+     * @param samples         samples taken so far
+     * @param intervalSeconds time between samples
+     * @param retention       how far back each resolution reaches, finest first
+     * @param bytes           memory reserved for the application's samples
+     * @param lastError       why the last sample failed, if it did
+     */
+    public record TrackingStatus(String applicationName, String organization, String space, Instant trackedSince,
+                                 long samples, long intervalSeconds, List<Duration> retention, long bytes,
+                                 String lastError) {}
+
+    /**
+     * Stats of an application over a window, summarised from memory
+     *
+     * @param applicationName   the tracked application
+     * @param from              start of the window
+     * @param to                end of the window
+     * @param resolutionSeconds width of the buckets the window was read from
+     * @param points            number of buckets in the window
+     * @param latestSampleAt    when the most recent sample was taken, if any
+     * @param metrics           min, max, average, 95th percentile and latest value of each metric
+     */
+    public record InstanceStats(String applicationName, Instant from, Instant to, long resolutionSeconds, int points,
+                                Instant latestSampleAt, List<MetricSummary> metrics) {}
+
+    /**
+     * Summary of one metric over a window. The percentile is taken over the highest value of each
+     * bucket, so it is exact at the finest resolution and errs high at the coarser ones.
+     */
+    public record MetricSummary(Metric metric, double min, double max, double avg, double p95, double latest) {}
+
+    private record Key(String organization, String space, String applicationName) {
+
+        @Override
+        public String toString() {
+            return organization + "/" + space + "/" + applicationName;
+        }
+    }
+
+    private final class Tracked {
+
+        private final Key key;
+        private final StatsSeries series;
+        private final Instant since = Instant.now();
+        private final AtomicLong samples = new AtomicLong();
+        private volatile Disposable sampling;
+        private volatile String lastError;
+
+        Tracked(Key key, StatsSeries series) {
+            this.key = key;
+            this.series = series;
+        }
+
+        TrackingStatus status() {
+            List<Duration> retention = Arrays.stream(RESOLUTIONS)
+                    .mapToObj(multiplier -> interval.multipliedBy((long) multiplier * points))
+                    .toList();
+            return new TrackingStatus(key.applicationName(), key.organization(), key.space(), since, samples.get(),
+                    interval.toSeconds(), retention, StatsSeries.bytes(RESOLUTIONS.length, points), lastError);
+        }
+    }
+}
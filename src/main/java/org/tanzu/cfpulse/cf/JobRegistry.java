@@ -0,0 +1,291 @@
+package org.tanzu.cfpulse.cf;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Exceptions;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Tracks long-running tool calls as jobs. Calls made in async mode are submitted here and return a
+ * job id straight away, while the work continues on a virtual thread; at most a configured number
+ * of jobs run at once and the rest wait their turn. A running job also holds the
+ * {@link ToolConcurrencyLimiter} permits of the tool class that submitted it, which the tool call
+ * itself gave back on returning the job id. Calls made synchronously are recorded too, so recent
+ * pushes, restarts and clones can be listed the same way.
+ * <p>
+ * Running and queued jobs are always kept, up to a hard limit on how many may be in progress.
+ * Finished jobs are kept for a retention period, up to a maximum count, so the registry's memory
+ * stays bounded however many calls are made.
+ */
+@Component
+public class JobRegistry implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobRegistry.class);
+
+    private final MeterRegistry meterRegistry;
+    private final ToolConcurrencyLimiter concurrencyLimiter;
+    private final Cache<String, Job> jobs;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("cf-job-", 0).factory());
+    private final Semaphore runningPermits;
+    private final AtomicInteger activeJobs = new AtomicInteger();
+    private final int maxActive;
+
+    public JobRegistry(MeterRegistry meterRegistry, ToolConcurrencyLimiter concurrencyLimiter,
+                       @Value("${cf.jobs.max-running:16}") int maxRunning,
+                       @Value("${cf.jobs.max-active:256}") int maxActive,
+                       @Value("${cf.jobs.retention:1h}") Duration retention,
+                       @Value("${cf.jobs.max-retained:500}") long maxRetained) {
+        this.meterRegistry = meterRegistry;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.runningPermits = new Semaphore(maxRunning, true);
+        this.maxActive = maxActive;
+        // Jobs in progress weigh nothing and never expire, so only finished jobs count against the limits
+        this.jobs = Caffeine.newBuilder()
+                .maximumWeight(maxRetained)
+                .weigher((String id, Job job) -> job.finished() ? 1 : 0)
+                .expireAfter(new Expiry<String, Job>() {
+                    @Override
+                    public long expireAfterCreate(String id, Job job, long currentTime) {
+                        return job.finished() ? retention.toNanos() : Long.MAX_VALUE;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String id, Job job, long currentTime, long currentDuration) {
+                        return expireAfterCreate(id, job, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String id, Job job, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, jobs, "cf.jobs");
+        Gauge.builder("cf.jobs.active", activeJobs, AtomicInteger::get)
+                .description("Async jobs that are queued or running")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queue {@code work} to run in the background and return its job straight away
+     *
+     * @param toolClass the tool service submitting the job, whose concurrency limit the job counts against
+     * @throws RejectedExecutionException when the limit of jobs in progress has been reached
+     */
+    public JobStatus submit(Class<?> toolClass, String tool, String target, Work work) {
+        if (activeJobs.incrementAndGet() > maxActive) {
+            activeJobs.decrementAndGet();
+            logger.warn("Rejected {} job for {}: {} jobs already in progress", tool, target, maxActive);
+            throw new RejectedExecutionException("Too many jobs in progress (limit of " + maxActive + " reached)");
+        }
+        Job job = new Job(tool, target);
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> {
+                ToolConcurrencyLimiter.Permit permit;
+                try {
+                    runningPermits.acquire();
+                    try {
+                        permit = concurrencyLimiter.await(toolClass.getSimpleName());
+                    } catch (InterruptedException e) {
+                        runningPermits.release();
+                        throw e;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    finish(job, null, e);
+                    activeJobs.decrementAndGet();
+                    return;
+                }
+                try (permit) {
+                    execute(job, work);
+                } catch (Exception e) {
+                    // Recorded on the job
+                } finally {
+                    runningPermits.release();
+                    activeJobs.decrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            activeJobs.decrementAndGet();
+            finish(job, null, e);
+            throw e;
+        }
+        logger.info("Submitted {} job {} for {}", tool, job.id, target);
+        return job.status();
+    }
+
+    /**
+     * Run {@code work} on the calling thread, recording it as a job
+     *
+     * @return the finished job
+     * @throws RuntimeException the failure of {@code work}, unchanged when it was unchecked
+     */
+    public JobStatus run(String tool, String target, Work work) {
+        Job job = new Job(tool, target);
+        jobs.put(job.id, job);
+        try {
+            execute(job, work);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        return job.status();
+    }
+
+    public JobStatus status(String id) {
+        Job job = jobs.getIfPresent(id);
+        if (job == null) {
+            throw new NoSuchElementException("Job " + id + " does not exist or is no longer retained");
+        }
+        return job.status();
+    }
+
+    /**
+     * Every retained job, most recently submitted first
+     */
+    public List<JobStatus> list() {
+        return jobs.asMap().values().stream()
+                .map(Job::status)
+                .sorted(Comparator.comparing(JobStatus::submittedAt).reversed())
+                .toList();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private void execute(Job job, Work work) throws Exception {
+        job.start();
+        try {
+            Object result = work.run(job::stage);
+            finish(job, result, null);
+        } catch (Exception e) {
+            finish(job, null, e);
+            throw e;
+        }
+    }
+
+    private void finish(Job job, Object result, Throwable error) {
+        job.finish(result, error != null ? Exceptions.unwrap(error) : null);
+        // Re-inserting the finished job gives it a weight and a retention period
+        jobs.put(job.id, job);
+        Timer.builder("cf.jobs.duration")
+                .description("Time from submission to completion of jobs, by tool and outcome")
+                .tag("tool", job.tool)
+                .tag("outcome", error == null ? "success" : "error")
+                .register(meterRegistry)
+                .record(Duration.ofNanos(job.finishedNanos - job.submittedNanos));
+        if (error != null) {
+            logger.warn("{} job {} for {} failed: {}", job.tool, job.id, job.target, error.getMessage());
+        } else {
+            logger.info("{} job {} for {} completed", job.tool, job.id, job.target);
+        }
+    }
+
+    /**
+     * The body of a job. Calls {@code stage} as it moves through the steps of the work.
+     */
+    @FunctionalInterface
+    public interface Work {
+        Object run(Consumer<String> stage) throws Exception;
+    }
+
+    public enum Status { QUEUED, RUNNING, SUCCEEDED, FAILED }
+
+    /**
+     * Snapshot of a job
+     *
+     * @param id            job id to pass to {@code jobStatus}
+     * @param tool          the tool that started the job
+     * @param target        what the job works on, usually an application name
+     * @param status        where the job is in its lifecycle
+     * @param stage         the last step the job reported, if any
+     * @param submittedAt   when the job was submitted
+     * @param elapsedMillis time since submission, or until completion once finished
+     * @param result        what the tool returned, once succeeded
+     * @param error         the failure message, once failed
+     */
+    public record JobStatus(String id, String tool, String target, Status status, String stage,
+                            Instant submittedAt, long elapsedMillis, Object result, String error) {}
+
+    private static final class Job {
+
+        private final String id = UUID.randomUUID().toString();
+        private final String tool;
+        private final String target;
+        private final Instant submittedAt = Instant.now();
+        private final long submittedNanos = System.nanoTime();
+        private volatile Status status = Status.QUEUED;
+        private volatile String stage;
+        private volatile long finishedNanos;
+        private volatile Object result;
+        private volatile String error;
+
+        Job(String tool, String target) {
+            this.tool = tool;
+            this.target = target;
+        }
+
+        void start() {
+            status = Status.RUNNING;
+        }
+
+        void stage(String stage) {
+            this.stage = stage;
+        }
+
+        void finish(Object result, Throwable error) {
+            this.result = result;
+            this.error = error != null ? describe(error) : null;
+            this.finishedNanos = System.nanoTime();
+            this.status = error != null ? Status.FAILED : Status.SUCCEEDED;
+        }
+
+        private static String describe(Throwable error) {
+            Throwable cause = error;
+            while (cause.getCause() != null && cause.getCause() != cause) {
+                cause = cause.getCause();
+            }
+            return cause == error ? String.valueOf(error.getMessage())
+                    : error.getMessage() + " (caused by " + cause.getClass().getSimpleName() + ": " + cause.getMessage() + ")";
+        }
+
+        boolean finished() {
+            Status current = status;
+            return current == Status.SUCCEEDED || current == Status.FAILED;
+        }
+
+        JobStatus status() {
+            long end = finished() ? finishedNanos : System.nanoTime();
+            return new JobStatus(id, tool, target, status, stage, submittedAt,
+                    Duration.ofNanos(end - submittedNanos).toMillis(), result, error);
+        }
+    }
+}
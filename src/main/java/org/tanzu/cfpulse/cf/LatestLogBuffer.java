@@ -0,0 +1,57 @@
+package org.tanzu.cfpulse.cf;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Fixed-capacity buffer that keeps the latest elements added to it by {@code order}, whatever order
+ * they arrive in. Elements are held in a min-heap sized once, so memory stays at the capacity
+ * however many are offered; once full, each element that is not later than the earliest one held
+ * is counted as dropped, and each that is displaces that earliest one.
+ */
+final class LatestLogBuffer<T> {
+
+    private final int capacity;
+    private final Comparator<? super T> order;
+    private final PriorityQueue<T> elements;
+    private long dropped;
+
+    LatestLogBuffer(int capacity, Comparator<? super T> order) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        this.capacity = capacity;
+        this.order = order;
+        this.elements = new PriorityQueue<>(capacity, order);
+    }
+
+    synchronized void add(T element) {
+        if (elements.size() < capacity) {
+            elements.add(element);
+            return;
+        }
+        dropped++;
+        if (order.compare(element, elements.peek()) > 0) {
+            elements.poll();
+            elements.add(element);
+        }
+    }
+
+    /**
+     * The retained elements, earliest first
+     */
+    synchronized List<T> snapshot() {
+        List<T> snapshot = new ArrayList<>(elements);
+        snapshot.sort(order);
+        return snapshot;
+    }
+
+    /**
+     * How many elements were left out because the buffer was full
+     */
+    synchronized long dropped() {
+        return dropped;
+    }
+}
@@ -0,0 +1,60 @@
+package org.tanzu.cfpulse.cf;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a paged listing, handed to clients as an opaque token. A cursor names the listing,
+ * org and space it was issued for and the version of the snapshot it was cut from, so it is
+ * rejected rather than silently skipping or repeating items when replayed anywhere else.
+ *
+ * @param version  the snapshot the position refers to, or 0 when the listing is paged by the API
+ * @param position offset into a cached snapshot, or the next page number of an API-paged listing
+ * @param size     page size the cursor was issued with
+ */
+record ListingCursor(SpaceListingCache.Listing listing, String organization, String space, long version,
+                     int position, int size) {
+
+    private static final String SEPARATOR = "\n";
+
+    String encode() {
+        String token = String.join(SEPARATOR, listing.name(), organization, space, String.valueOf(version),
+                String.valueOf(position), String.valueOf(size));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Read a cursor issued for {@code listing} in this org and space
+     *
+     * @return the cursor, or null when none was given
+     * @throws IllegalArgumentException when the cursor is malformed or was issued for another listing, org or space
+     */
+    static ListingCursor decode(String cursor, SpaceListingCache.Listing listing, String organization, String space) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(SEPARATOR, -1);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor for the " + listing + " listing: " + cursor);
+        }
+        if (parts.length != 6 || !parts[0].equals(listing.name())) {
+            throw new IllegalArgumentException("Invalid cursor for the " + listing + " listing: " + cursor);
+        }
+        if (!parts[1].equals(organization) || !parts[2].equals(space)) {
+            throw new IllegalArgumentException("The cursor was issued for the " + listing + " listing of " + parts[1] + "/"
+                    + parts[2] + ", not " + organization + "/" + space);
+        }
+        try {
+            ListingCursor decoded = new ListingCursor(listing, organization, space, Long.parseLong(parts[3]),
+                    Integer.parseInt(parts[4]), Integer.parseInt(parts[5]));
+            if (decoded.position() >= 0 && decoded.size() > 0) {
+                return decoded;
+            }
+        } catch (NumberFormatException e) {
+            // fall through to the error below
+        }
+        throw new IllegalArgumentException("Invalid cursor for the " + listing + " listing: " + cursor);
+    }
+}
@@ -0,0 +1,53 @@
+package org.tanzu.cfpulse.cf;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed-capacity buffer that keeps the most recent elements added to it. The backing array is
+ * allocated once, so a log stream of any length is held in constant memory; once full, each new
+ * element overwrites the oldest and is counted as dropped.
+ */
+final class LogRingBuffer<T> {
+
+    private final Object[] elements;
+    private int head;
+    private int count;
+    private long dropped;
+
+    LogRingBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        this.elements = new Object[capacity];
+    }
+
+    synchronized void add(T element) {
+        elements[(head + count) % elements.length] = element;
+        if (count < elements.length) {
+            count++;
+        } else {
+            head = (head + 1) % elements.length;
+            dropped++;
+        }
+    }
+
+    /**
+     * The retained elements, oldest first
+     */
+    @SuppressWarnings("unchecked")
+    synchronized List<T> snapshot() {
+        List<T> snapshot = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            snapshot.add((T) elements[(head + i) % elements.length]);
+        }
+        return snapshot;
+    }
+
+    /**
+     * How many elements were overwritten because the buffer was full
+     */
+    synchronized long dropped() {
+        return dropped;
+    }
+}
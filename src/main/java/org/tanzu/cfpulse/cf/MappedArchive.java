@@ -0,0 +1,189 @@
+package org.tanzu.cfpulse.cf;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.compress.archivers.zip.ZipMethod;
+import org.cloudfoundry.util.FileUtils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * A push artifact read through a read-only memory mapping. Entry data is hashed and copied straight
+ * out of the mapping rather than through stream buffers. Hashing is spread across cores and copying
+ * reuses each entry's compressed form, so preparing a large upload is bounded by disk and SHA-1
+ * throughput rather than by a single thread inflating and deflating every entry.
+ */
+public final class MappedArchive implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ZipFile zipFile;
+    private final FileChannel channel;
+    private final MappedByteBuffer mapping;
+    private final List<ZipArchiveEntry> entries;
+
+    private MappedArchive(ZipFile zipFile, FileChannel channel, MappedByteBuffer mapping) {
+        this.zipFile = zipFile;
+        this.channel = channel;
+        this.mapping = mapping;
+        this.entries = Collections.list(zipFile.getEntries()).stream()
+                .filter(entry -> !entry.isDirectory())
+                .toList();
+    }
+
+    public static MappedArchive open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ZipFile zipFile = ZipFile.builder().setPath(path).get();
+            // Archives too large for a single mapping are mapped entry by entry instead
+            MappedByteBuffer mapping = channel.size() <= Integer.MAX_VALUE
+                    ? channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+                    : null;
+            return new MappedArchive(zipFile, channel, mapping);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * SHA-1 fingerprints of every file entry, in archive order, hashed in parallel
+     */
+    public List<ArtifactFingerprintCache.ArtifactEntry> fingerprints() throws IOException {
+        try {
+            return entries.parallelStream()
+                    .map(entry -> {
+                        try {
+                            return new ArtifactFingerprintCache.ArtifactEntry(entry.getName(), hash(entry),
+                                    (int) entry.getSize(), FileUtils.permissions(entry.getUnixMode()));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    })
+                    .toList();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Write the file entries whose names match {@code include} to a new archive at {@code target},
+     * copying their compressed data as-is
+     */
+    public void writeEntries(Path target, Predicate<String> include) throws IOException {
+        try (ZipArchiveOutputStream out = new ZipArchiveOutputStream(target)) {
+            for (ZipArchiveEntry entry : entries) {
+                if (include.test(entry.getName())) {
+                    out.addRawArchiveEntry(entry, new ByteBufferInputStream(data(entry)));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (channel) {
+            zipFile.close();
+        }
+    }
+
+    private String hash(ZipArchiveEntry entry) throws IOException {
+        MessageDigest digest = sha1();
+        if (entry.getMethod() == ZipMethod.STORED.getCode()) {
+            digest.update(data(entry));
+        } else if (entry.getMethod() == ZipMethod.DEFLATED.getCode()) {
+            inflate(data(entry), digest, new byte[(int) Math.min(Math.max(entry.getSize(), 1), BUFFER_SIZE)]);
+        } else {
+            try (InputStream in = zipFile.getInputStream(entry)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private ByteBuffer data(ZipArchiveEntry entry) throws IOException {
+        long offset = entry.getDataOffset();
+        long length = entry.getCompressedSize();
+        if (offset < 0 || length < 0 || length > Integer.MAX_VALUE) {
+            throw new IOException("Cannot map entry " + entry.getName());
+        }
+        return mapping != null
+                ? mapping.slice((int) offset, (int) length)
+                : channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+    }
+
+    private static void inflate(ByteBuffer compressed, MessageDigest digest, byte[] buffer) throws IOException {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(compressed);
+            while (!inflater.finished()) {
+                int inflated = inflater.inflate(buffer);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("Truncated deflate data");
+                }
+                digest.update(buffer, 0, inflated);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt deflate data", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static MessageDigest sha1() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package org.tanzu.cfpulse.cf;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Exceptions;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wraps every {@code @McpTool} method so that invocations are admitted through the
+ * {@link ToolConcurrencyLimiter} before they reach the Cloud Foundry API, and records the
+ * latency, errors and upstream API usage of each call tagged by tool, org and space.
+ */
+@Aspect
+@Component
+public class McpToolInvocationAspect {
+
+    private final ToolConcurrencyLimiter concurrencyLimiter;
+    private final CfApiCallRecorder apiCallRecorder;
+    private final MeterRegistry meterRegistry;
+    private final String defaultOrganization;
+    private final String defaultSpace;
+
+    public McpToolInvocationAspect(ToolConcurrencyLimiter concurrencyLimiter,
+                                   CfApiCallRecorder apiCallRecorder,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${cf.organization}") String defaultOrganization,
+                                   @Value("${cf.space}") String defaultSpace) {
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.apiCallRecorder = apiCallRecorder;
+        this.meterRegistry = meterRegistry;
+        this.defaultOrganization = defaultOrganization;
+        this.defaultSpace = defaultSpace;
+    }
+
+    @Around("@annotation(org.springaicommunity.mcp.annotation.McpTool)")
+    public Object invokeTool(ProceedingJoinPoint joinPoint) throws Throwable {
+        String toolClass = AopUtils.getTargetClass(joinPoint.getTarget()).getSimpleName();
+        Tags tags = toolTags(joinPoint);
+        CfApiCallRecorder.ToolInvocation invocation = new CfApiCallRecorder.ToolInvocation();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        String exception = "none";
+        try (CfApiCallRecorder.Scope ignored = apiCallRecorder.open(invocation);
+             ToolConcurrencyLimiter.Permit permit = concurrencyLimiter.acquire(toolClass)) {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            outcome = "error";
+            exception = Exceptions.unwrap(e).getClass().getSimpleName();
+            meterRegistry.counter("mcp.tool.errors", tags.and("exception", exception)).increment();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("mcp.tool.invocations")
+                    .description("MCP tool call latency")
+                    .tags(tags)
+                    .tag("outcome", outcome)
+                    .tag("exception", exception)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+            recordApiUsage(tags, invocation);
+        }
+    }
+
+    private void recordApiUsage(Tags tags, CfApiCallRecorder.ToolInvocation invocation) {
+        DistributionSummary.builder("mcp.tool.cf.api.calls")
+                .description("Cloud Foundry API requests made per MCP tool call")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(invocation.calls());
+        Timer.builder("mcp.tool.cf.api.time")
+                .description("Time spent waiting on Cloud Foundry API responses per MCP tool call")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(invocation.time().toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private Tags toolTags(ProceedingJoinPoint joinPoint) {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        String organization = defaultOrganization;
+        String space = defaultSpace;
+        String[] names = signature.getParameterNames();
+        Object[] args = joinPoint.getArgs();
+        for (int i = 0; names != null && i < names.length; i++) {
+            if (args[i] instanceof String value) {
+                if ("organization".equals(names[i])) {
+                    organization = value;
+                } else if ("space".equals(names[i])) {
+                    space = value;
+                }
+            }
+        }
+        return Tags.of("tool", signature.getName(), "organization", organization, "space", space);
+    }
+}
@@ -0,0 +1,254 @@
+package org.tanzu.cfpulse.cf;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.cloudfoundry.AbstractCloudFoundryException;
+import org.cloudfoundry.client.CloudFoundryClient;
+import org.cloudfoundry.client.v3.Resource;
+import org.cloudfoundry.client.v3.applications.ListApplicationsRequest;
+import org.cloudfoundry.client.v3.domains.ListDomainsRequest;
+import org.cloudfoundry.client.v3.organizations.ListOrganizationsRequest;
+import org.cloudfoundry.client.v3.serviceinstances.ListServiceInstancesRequest;
+import org.cloudfoundry.client.v3.spaces.ListSpacesRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * Shared, bounded cache of Cloud Foundry name to GUID resolutions for orgs, spaces, applications,
+ * domains and service instances. Tools that talk to the v3 API resolve names here instead of
+ * walking org, space and resource lookups on every call, so a warm call goes straight to the
+ * resource. Names that do not resolve are never cached. Tools that rename or delete a resource
+ * invalidate its entries, and everything else expires after a configurable TTL. Applications can
+ * also be deleted or recreated behind the cache's back, so calls made through
+ * {@link #withApplicationId} drop an application's entry when the foundation no longer knows its
+ * GUID and try once more with the current one.
+ */
+@Component
+public class NameResolver {
+
+    private static final Logger logger = LoggerFactory.getLogger(NameResolver.class);
+
+    /** Application names looked up per request when resolving several at once */
+    private static final int NAME_BATCH_SIZE = 50;
+
+    private enum Kind {
+        ORGANIZATION,
+        SPACE,
+        APPLICATION,
+        SERVICE_INSTANCE,
+        DOMAIN
+    }
+
+    private record NameKey(Kind kind, String organization, String space, String name) {}
+
+    private final CloudFoundryOperationsFactory operationsFactory;
+    private final Cache<NameKey, String> cache;
+
+    public NameResolver(CloudFoundryOperationsFactory operationsFactory,
+                        MeterRegistry meterRegistry,
+                        @Value("${cf.cache.names.ttl:10m}") Duration ttl,
+                        @Value("${cf.cache.names.max-size:10000}") long maxSize) {
+        this.operationsFactory = operationsFactory;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "cf.names");
+    }
+
+    public Mono<String> organizationId(String organization) {
+        String org = resolveOrganization(organization);
+        return resolve(new NameKey(Kind.ORGANIZATION, org, null, org), client -> client.organizationsV3()
+                .list(ListOrganizationsRequest.builder().name(org).build())
+                .flatMap(response -> firstId(response.getResources())));
+    }
+
+    public Mono<String> spaceId(String organization, String space) {
+        String org = resolveOrganization(organization);
+        String spaceName = resolveSpace(space);
+        return resolve(new NameKey(Kind.SPACE, org, spaceName, spaceName), client -> organizationId(org)
+                .flatMap(orgId -> client.spacesV3()
+                        .list(ListSpacesRequest.builder().name(spaceName).organizationId(orgId).build()))
+                .flatMap(response -> firstId(response.getResources())));
+    }
+
+    public Mono<String> applicationId(String organization, String space, String applicationName) {
+        String org = resolveOrganization(organization);
+        String spaceName = resolveSpace(space);
+        return resolve(new NameKey(Kind.APPLICATION, org, spaceName, applicationName), client -> spaceId(org, spaceName)
+                .flatMap(spaceId -> client.applicationsV3()
+                        .list(ListApplicationsRequest.builder().name(applicationName).spaceId(spaceId).build()))
+                .flatMap(response -> firstId(response.getResources())));
+    }
+
+    /**
+     * Resolve an application and make {@code call} with its GUID. When the call fails with a 404,
+     * the GUID may be stale because the application was deleted or recreated outside this server:
+     * its entry is dropped and the name resolved again. The call is retried once if that gives a
+     * different GUID, and fails with a {@link NoSuchElementException} if the application is gone.
+     */
+    public <T> Mono<T> withApplicationId(String organization, String space, String applicationName,
+                                         Function<String, Mono<T>> call) {
+        String org = resolveOrganization(organization);
+        String spaceName = resolveSpace(space);
+        NameKey key = new NameKey(Kind.APPLICATION, org, spaceName, applicationName);
+        return applicationId(org, spaceName, applicationName)
+                .flatMap(applicationId -> call.apply(applicationId)
+                        .onErrorResume(NameResolver::isNotFound, error -> {
+                            cache.asMap().remove(key, applicationId);
+                            return applicationId(org, spaceName, applicationName)
+                                    .flatMap(current -> {
+                                        // The same GUID means something other than the application was not found
+                                        if (current.equals(applicationId)) {
+                                            return Mono.error(error);
+                                        }
+                                        logger.info("{} was recreated as {}, retrying", describe(key), current);
+                                        return call.apply(current);
+                                    });
+                        }));
+    }
+
+    /**
+     * Resolve several application names of a space at once. Names that are not cached are looked
+     * up together, in as few requests as the batch size allows. Names that do not exist are left
+     * out of the result rather than failing it.
+     */
+    public Mono<Map<String, String>> applicationIds(String organization, String space, Collection<String> applicationNames) {
+        String org = resolveOrganization(organization);
+        String spaceName = resolveSpace(space);
+        return Mono.defer(() -> {
+            Map<String, String> resolved = new HashMap<>();
+            List<String> missing = new ArrayList<>();
+            for (String name : applicationNames.stream().distinct().toList()) {
+                String id = cache.getIfPresent(new NameKey(Kind.APPLICATION, org, spaceName, name));
+                if (id != null) {
+                    resolved.put(name, id);
+                } else {
+                    missing.add(name);
+                }
+            }
+            if (missing.isEmpty()) {
+                return Mono.just(resolved);
+            }
+            List<List<String>> batches = new ArrayList<>();
+            for (int i = 0; i < missing.size(); i += NAME_BATCH_SIZE) {
+                batches.add(missing.subList(i, Math.min(i + NAME_BATCH_SIZE, missing.size())));
+            }
+            CloudFoundryClient client = operationsFactory.getCloudFoundryClient();
+            return spaceId(org, spaceName)
+                    .flatMapMany(spaceId -> Flux.fromIterable(batches)
+                            .flatMap(batch -> client.applicationsV3().list(ListApplicationsRequest.builder()
+                                    .names(batch)
+                                    .spaceId(spaceId)
+                                    .perPage(batch.size())
+                                    .build())))
+                    .flatMapIterable(response -> response.getResources())
+                    .doOnNext(application -> cache.put(new NameKey(Kind.APPLICATION, org, spaceName, application.getName()),
+                            application.getId()))
+                    .collectMap(application -> application.getName(), application -> application.getId(), () -> resolved);
+        });
+    }
+
+    public Mono<String> serviceInstanceId(String organization, String space, String serviceInstanceName) {
+        String org = resolveOrganization(organization);
+        String spaceName = resolveSpace(space);
+        return resolve(new NameKey(Kind.SERVICE_INSTANCE, org, spaceName, serviceInstanceName), client -> spaceId(org, spaceName)
+                .flatMap(spaceId -> client.serviceInstancesV3()
+                        .list(ListServiceInstancesRequest.builder().serviceInstanceName(serviceInstanceName).spaceId(spaceId).build()))
+                .flatMap(response -> firstId(response.getResources())));
+    }
+
+    public Mono<String> domainId(String domain) {
+        return resolve(new NameKey(Kind.DOMAIN, null, null, domain), client -> client.domainsV3()
+                .list(ListDomainsRequest.builder().name(domain).build())
+                .flatMap(response -> firstId(response.getResources())));
+    }
+
+    /**
+     * Drop the space and every application and service instance resolved in it
+     */
+    public void invalidateSpace(String organization, String space) {
+        String org = resolveOrganization(organization);
+        String spaceName = resolveSpace(space);
+        cache.asMap().keySet().removeIf(key -> org.equals(key.organization()) && spaceName.equals(key.space()));
+        logger.debug("Invalidated resolved names for org={}, space={}", org, spaceName);
+    }
+
+    public void invalidateApplication(String organization, String space, String applicationName) {
+        cache.invalidate(new NameKey(Kind.APPLICATION, resolveOrganization(organization), resolveSpace(space), applicationName));
+    }
+
+    public void invalidateServiceInstance(String organization, String space, String serviceInstanceName) {
+        cache.invalidate(new NameKey(Kind.SERVICE_INSTANCE, resolveOrganization(organization), resolveSpace(space), serviceInstanceName));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    public long getSize() {
+        return cache.estimatedSize();
+    }
+
+    private Mono<String> resolve(NameKey key, Function<CloudFoundryClient, Mono<String>> loader) {
+        return Mono.defer(() -> {
+            String id = cache.getIfPresent(key);
+            if (id != null) {
+                return Mono.just(id);
+            }
+            return loader.apply(operationsFactory.getCloudFoundryClient())
+                    .switchIfEmpty(Mono.error(() -> new NoSuchElementException(describe(key) + " does not exist")))
+                    .doOnNext(resolved -> {
+                        logger.debug("Resolved {} to {}", describe(key), resolved);
+                        cache.put(key, resolved);
+                    });
+        });
+    }
+
+    private static boolean isNotFound(Throwable error) {
+        return error instanceof AbstractCloudFoundryException exception && exception.getStatusCode() == 404;
+    }
+
+    private static Mono<String> firstId(List<? extends Resource> resources) {
+        return Mono.justOrEmpty(resources.stream().findFirst().map(Resource::getId));
+    }
+
+    private static String describe(NameKey key) {
+        return switch (key.kind()) {
+            case ORGANIZATION -> "Organization " + key.name();
+            case SPACE -> "Space " + key.name() + " in org " + key.organization();
+            case APPLICATION -> "Application " + key.name() + " in " + key.organization() + "/" + key.space();
+            case SERVICE_INSTANCE -> "Service instance " + key.name() + " in " + key.organization() + "/" + key.space();
+            case DOMAIN -> "Domain " + key.name();
+        };
+    }
+
+    private String resolveOrganization(String organization) {
+        return organization != null ? organization : operationsFactory.getDefaultOrganization();
+    }
+
+    private String resolveSpace(String space) {
+        return space != null ? space : operationsFactory.getDefaultSpace();
+    }
+}
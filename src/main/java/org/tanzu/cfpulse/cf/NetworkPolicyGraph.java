@@ -0,0 +1,299 @@
+package org.tanzu.cfpulse.cf;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.cloudfoundry.client.v3.applications.ApplicationResource;
+import org.cloudfoundry.client.v3.applications.ListApplicationsRequest;
+import org.cloudfoundry.networking.v1.policies.ListPoliciesRequest;
+import org.cloudfoundry.networking.v1.policies.Policy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Every network policy the configured user can see, indexed by application GUID in both
+ * directions, so inbound, outbound and transitive reachability are answered from memory by
+ * walking adjacency sets. The index is loaded by the first query and refreshed in the background
+ * once it is older than the refresh interval; a refresh only applies the policies that were added
+ * or removed since, and policies created or deleted through this server are applied straight away.
+ * Application names are looked up again once older than the name refresh interval, so renames
+ * show up, and names of applications no longer in any policy are dropped on each refresh.
+ */
+@Component
+public class NetworkPolicyGraph {
+
+    private static final Logger logger = LoggerFactory.getLogger(NetworkPolicyGraph.class);
+
+    /** Application GUIDs looked up per request when naming the applications in the graph */
+    private static final int NAME_BATCH_SIZE = 50;
+
+    private final CloudFoundryOperationsFactory operationsFactory;
+    private final Duration refreshInterval;
+    private final Duration nameRefreshInterval;
+
+    private final ConcurrentMap<String, Set<Edge>> outbound = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Set<Edge>> inbound = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Name> names = new ConcurrentHashMap<>();
+    private final AtomicReference<Mono<Void>> inFlight = new AtomicReference<>();
+    private final Object lock = new Object();
+    /** Edges changed through this server while a refresh is in flight, which that refresh must leave alone */
+    private Set<Edge> touched;
+    private volatile Instant refreshedAt;
+
+    public NetworkPolicyGraph(CloudFoundryOperationsFactory operationsFactory, MeterRegistry meterRegistry,
+                              @Value("${cf.network-policies.refresh-interval:60s}") Duration refreshInterval,
+                              @Value("${cf.network-policies.name-refresh-interval:10m}") Duration nameRefreshInterval) {
+        this.operationsFactory = operationsFactory;
+        this.refreshInterval = refreshInterval;
+        this.nameRefreshInterval = nameRefreshInterval;
+        Gauge.builder("cf.network.policies.indexed", outbound, map -> map.values().stream().mapToInt(Set::size).sum())
+                .description("Network policies held in the reachability index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Applications reachable from, or able to reach, {@code applicationId}, walked breadth first
+     *
+     * @param port    only follow policies open on this port from or to {@code applicationId}; further
+     *                hops of a transitive walk follow policies on any port
+     * @param maxHops how many policies to follow away from {@code applicationId}
+     */
+    public Reachability reachability(String applicationName, String applicationId, Direction direction,
+                                     Integer port, int maxHops) {
+        ensureLoaded();
+        Map<String, Integer> hops = new HashMap<>();
+        hops.put(applicationId, 0);
+        Queue<String> frontier = new ArrayDeque<>();
+        frontier.add(applicationId);
+        List<ReachableApplication> reachable = new ArrayList<>();
+        while (!frontier.isEmpty()) {
+            String current = frontier.poll();
+            int depth = hops.get(current);
+            if (depth >= maxHops) {
+                continue;
+            }
+            for (Edge edge : (direction == Direction.OUTBOUND ? outbound : inbound).getOrDefault(current, Set.of())) {
+                if (depth == 0 && port != null && !edge.allows(port)) {
+                    continue;
+                }
+                String next = direction == Direction.OUTBOUND ? edge.destinationId() : edge.sourceId();
+                // Neighbours are listed once per policy, further hops once per application
+                if (depth == 0 || !hops.containsKey(next)) {
+                    Name name = names.get(next);
+                    reachable.add(new ReachableApplication(name != null ? name.name() : null, next, depth + 1,
+                            edge.protocol(), edge.ports()));
+                }
+                if (!hops.containsKey(next)) {
+                    hops.put(next, depth + 1);
+                    frontier.add(next);
+                }
+            }
+        }
+        return new Reachability(applicationName, direction, port, reachable, refreshedAt);
+    }
+
+    /**
+     * Record a policy just created through the networking API
+     */
+    public void add(Policy policy, String sourceName, String destinationName) {
+        Edge edge = Edge.of(policy);
+        Instant now = Instant.now();
+        names.put(edge.sourceId(), new Name(sourceName, now));
+        names.put(edge.destinationId(), new Name(destinationName, now));
+        synchronized (lock) {
+            link(edge);
+            if (touched != null) {
+                touched.add(edge);
+            }
+        }
+    }
+
+    /**
+     * Forget a policy just deleted through the networking API
+     */
+    public void remove(Policy policy) {
+        Edge edge = Edge.of(policy);
+        synchronized (lock) {
+            unlink(edge);
+            if (touched != null) {
+                touched.add(edge);
+            }
+        }
+    }
+
+    private void ensureLoaded() {
+        Instant refreshed = refreshedAt;
+        if (refreshed == null) {
+            refresh().block();
+        } else if (refreshed.plus(refreshInterval).isBefore(Instant.now())) {
+            refresh().subscribeOn(Schedulers.boundedElastic())
+                    .subscribe(null, error -> logger.warn("Could not refresh network policies: {}", error.getMessage()));
+        }
+    }
+
+    /**
+     * Reload the policies, sharing a refresh that is already running
+     */
+    private Mono<Void> refresh() {
+        while (true) {
+            Mono<Void> existing = inFlight.get();
+            if (existing != null) {
+                return existing;
+            }
+            AtomicReference<Mono<Void>> self = new AtomicReference<>();
+            Mono<Void> created = Mono.defer(this::load)
+                    .doFinally(signal -> inFlight.compareAndSet(self.get(), null))
+                    .cache();
+            self.set(created);
+            if (inFlight.compareAndSet(null, created)) {
+                return created;
+            }
+        }
+    }
+
+    private Mono<Void> load() {
+        synchronized (lock) {
+            touched = new HashSet<>();
+        }
+        return operationsFactory.getNetworkingClient().policies()
+                .list(ListPoliciesRequest.builder().build())
+                .map(response -> response.getPolicies().stream().map(Edge::of).collect(Collectors.toSet()))
+                .flatMap(fresh -> name(fresh).thenReturn(fresh))
+                .doOnNext(this::apply)
+                .doFinally(signal -> {
+                    synchronized (lock) {
+                        touched = null;
+                    }
+                })
+                .then();
+    }
+
+    private void apply(Set<Edge> fresh) {
+        int added = 0;
+        int removed = 0;
+        synchronized (lock) {
+            for (Set<Edge> edges : List.copyOf(outbound.values())) {
+                for (Edge edge : List.copyOf(edges)) {
+                    if (!fresh.contains(edge) && !touched.contains(edge)) {
+                        unlink(edge);
+                        removed++;
+                    }
+                }
+            }
+            for (Edge edge : fresh) {
+                if (!touched.contains(edge) && link(edge)) {
+                    added++;
+                }
+            }
+            names.keySet().removeIf(id -> !outbound.containsKey(id) && !inbound.containsKey(id));
+        }
+        refreshedAt = Instant.now();
+        logger.debug("Refreshed network policy index: {} policies, {} added, {} removed", fresh.size(), added, removed);
+    }
+
+    /**
+     * Name the applications of {@code edges} that have no name yet or whose name is due a refresh,
+     * forgetting those that no longer exist
+     */
+    private Mono<Void> name(Set<Edge> edges) {
+        Instant stale = Instant.now().minus(nameRefreshInterval);
+        List<String> unnamed = edges.stream()
+                .flatMap(edge -> Stream.of(edge.sourceId(), edge.destinationId()))
+                .distinct()
+                .filter(id -> {
+                    Name name = names.get(id);
+                    return name == null || name.namedAt().isBefore(stale);
+                })
+                .toList();
+        List<List<String>> batches = new ArrayList<>();
+        for (int i = 0; i < unnamed.size(); i += NAME_BATCH_SIZE) {
+            batches.add(unnamed.subList(i, Math.min(i + NAME_BATCH_SIZE, unnamed.size())));
+        }
+        return Flux.fromIterable(batches)
+                .flatMap(batch -> operationsFactory.getCloudFoundryClient().applicationsV3()
+                        .list(ListApplicationsRequest.builder().applicationIds(batch).perPage(batch.size()).build())
+                        .doOnNext(response -> {
+                            Instant now = Instant.now();
+                            Set<String> found = new HashSet<>();
+                            for (ApplicationResource application : response.getResources()) {
+                                names.put(application.getId(), new Name(application.getName(), now));
+                                found.add(application.getId());
+                            }
+                            batch.stream().filter(id -> !found.contains(id)).forEach(names::remove);
+                        }), 4)
+                .then();
+    }
+
+    private boolean link(Edge edge) {
+        inbound.computeIfAbsent(edge.destinationId(), id -> ConcurrentHashMap.newKeySet()).add(edge);
+        return outbound.computeIfAbsent(edge.sourceId(), id -> ConcurrentHashMap.newKeySet()).add(edge);
+    }
+
+    private void unlink(Edge edge) {
+        outbound.computeIfPresent(edge.sourceId(), (id, edges) -> edges.remove(edge) && edges.isEmpty() ? null : edges);
+        inbound.computeIfPresent(edge.destinationId(), (id, edges) -> edges.remove(edge) && edges.isEmpty() ? null : edges);
+    }
+
+    public enum Direction { INBOUND, OUTBOUND }
+
+    private record Name(String name, Instant namedAt) {}
+
+    /**
+     * A policy allowing {@code sourceId} to connect to {@code destinationId}
+     */
+    record Edge(String sourceId, String destinationId, String protocol, int startPort, int endPort) {
+
+        static Edge of(Policy policy) {
+            var ports = policy.getDestination().getPorts();
+            return new Edge(policy.getSource().getId(), policy.getDestination().getId(),
+                    policy.getDestination().getProtocol(), ports.getStart(), ports.getEnd());
+        }
+
+        boolean allows(int port) {
+            return port >= startPort && port <= endPort;
+        }
+
+        String ports() {
+            return startPort == endPort ? String.valueOf(startPort) : startPort + "-" + endPort;
+        }
+    }
+
+    /**
+     * @param applicationName the application, or null if it could not be named
+     * @param applicationId   its GUID
+     * @param hops            how many policies away it is
+     * @param protocol        protocol of the policy it was reached through
+     * @param ports           ports of the policy it was reached through
+     */
+    public record ReachableApplication(String applicationName, String applicationId, int hops, String protocol, String ports) {}
+
+    /**
+     * @param applicationName the application the walk started from
+     * @param direction       whether the walk followed policies into or out of it
+     * @param port            the port filter on its own policies, if any
+     * @param applications    the applications found, nearest first
+     * @param indexedAt       when the index was last refreshed from the networking API
+     */
+    public record Reachability(String applicationName, Direction direction, Integer port,
+                               List<ReachableApplication> applications, Instant indexedAt) {}
+}
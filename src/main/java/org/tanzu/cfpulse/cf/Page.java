@@ -0,0 +1,9 @@
+package org.tanzu.cfpulse.cf;
+
+import java.util.List;
+
+/**
+ * One window of a listing. {@code nextCursor} is an opaque token that fetches the following window
+ * and is {@code null} on the last page.
+ */
+public record Page<T>(List<T> items, int total, String nextCursor) {}
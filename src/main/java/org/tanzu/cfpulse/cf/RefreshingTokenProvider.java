@@ -0,0 +1,194 @@
+package org.tanzu.cfpulse.cf;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.cloudfoundry.reactor.ConnectionContext;
+import org.cloudfoundry.reactor.TokenProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps a UAA access token ready ahead of the tool calls that need it. The delegate provider is
+ * asked for a fresh token in the background shortly before the current one expires, so calls keep
+ * using a valid cached token and never wait on a grant. Callers that do find no usable token, at
+ * startup or after a 401, share a single in-flight fetch. A failed refresh is retried while the
+ * current token is still valid.
+ */
+public class RefreshingTokenProvider implements TokenProvider, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshingTokenProvider.class);
+
+    /** Tokens this close to expiry are no longer handed out */
+    private static final Duration EXPIRY_MARGIN = Duration.ofSeconds(10);
+
+    private final TokenProvider delegate;
+    private final ConnectionContext connectionContext;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Duration refreshBefore;
+    private final Duration retryInterval;
+    private final Scheduler scheduler = Schedulers.newSingle("cf-token-refresh", true);
+
+    private final AtomicReference<Mono<CachedToken>> inFlight = new AtomicReference<>();
+    private volatile CachedToken current;
+    private volatile Disposable scheduledRefresh;
+
+    public RefreshingTokenProvider(TokenProvider delegate, ConnectionContext connectionContext,
+                                   ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                   Duration refreshBefore, Duration retryInterval) {
+        this.delegate = delegate;
+        this.connectionContext = connectionContext;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.refreshBefore = refreshBefore;
+        this.retryInterval = retryInterval;
+        Gauge.builder("cf.token.time.to.expiry", this, RefreshingTokenProvider::secondsToExpiry)
+                .description("Seconds until the cached UAA access token expires")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<String> getToken(ConnectionContext connectionContext) {
+        CachedToken token = current;
+        if (token != null && token.usableAt(Instant.now())) {
+            return Mono.just(token.value());
+        }
+        return fetch(connectionContext, "request").map(CachedToken::value);
+    }
+
+    /**
+     * Called by the clients when a request is rejected with a 401, so the next call fetches a new token
+     */
+    @Override
+    public void invalidate(ConnectionContext connectionContext) {
+        logger.debug("Access token rejected, discarding cached token");
+        current = null;
+    }
+
+    /**
+     * Fetch the first token before any tool call needs it
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        scheduleRefresh(Duration.ZERO);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.dispose();
+    }
+
+    private Mono<CachedToken> fetch(ConnectionContext connectionContext, String trigger) {
+        while (true) {
+            Mono<CachedToken> existing = inFlight.get();
+            if (existing != null) {
+                return existing;
+            }
+            AtomicReference<Mono<CachedToken>> self = new AtomicReference<>();
+            Mono<CachedToken> created = Mono.defer(() -> {
+                        Timer.Sample sample = Timer.start(meterRegistry);
+                        // The delegate caches its own token until invalidated, so force a new grant
+                        delegate.invalidate(connectionContext);
+                        return delegate.getToken(connectionContext)
+                                .map(this::parse)
+                                .doOnNext(token -> sample.stop(fetchTimer(trigger, "success")))
+                                .doOnError(e -> sample.stop(fetchTimer(trigger, "error")));
+                    })
+                    .doOnNext(this::onRefreshed)
+                    .doOnError(this::onRefreshFailed)
+                    .doFinally(signal -> inFlight.compareAndSet(self.get(), null))
+                    .cache();
+            self.set(created);
+            if (inFlight.compareAndSet(null, created)) {
+                return created;
+            }
+        }
+    }
+
+    private void onRefreshed(CachedToken token) {
+        current = token;
+        if (token.expiresAt() == null) {
+            logger.debug("Fetched access token without an expiry claim, refreshing on rejection only");
+            return;
+        }
+        Duration lifetime = Duration.between(Instant.now(), token.expiresAt());
+        Duration lead = lifetime.dividedBy(2).compareTo(refreshBefore) < 0 ? lifetime.dividedBy(2) : refreshBefore;
+        logger.debug("Fetched access token expiring at {}, refreshing in {}", token.expiresAt(), lifetime.minus(lead));
+        scheduleRefresh(lifetime.minus(lead));
+    }
+
+    private void onRefreshFailed(Throwable error) {
+        meterRegistry.counter("cf.token.refresh.failures", "exception", error.getClass().getSimpleName()).increment();
+        logger.warn("Could not fetch an access token, retrying in {}: {}", retryInterval, error.getMessage());
+        scheduleRefresh(retryInterval);
+    }
+
+    private void scheduleRefresh(Duration delay) {
+        Disposable previous = scheduledRefresh;
+        if (previous != null) {
+            previous.dispose();
+        }
+        scheduledRefresh = scheduler.schedule(() -> fetch(connectionContext, "scheduled")
+                        .subscribe(token -> {}, error -> {}),
+                Math.max(delay.toMillis(), 0), TimeUnit.MILLISECONDS);
+    }
+
+    private Timer fetchTimer(String trigger, String outcome) {
+        return Timer.builder("cf.token.fetches")
+                .description("UAA access token grants, by whether a request or the background refresh triggered them")
+                .tag("trigger", trigger)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private CachedToken parse(String token) {
+        return new CachedToken(token, expiry(token));
+    }
+
+    private Instant expiry(String token) {
+        // Tokens are "<type> <jwt>"; the expiry is the exp claim of the JWT payload
+        String[] parts = token.substring(token.indexOf(' ') + 1).split("\\.");
+        if (parts.length < 2) {
+            return null;
+        }
+        try {
+            JsonNode exp = objectMapper.readTree(Base64.getUrlDecoder().decode(parts[1])).get("exp");
+            return exp != null && exp.canConvertToLong() ? Instant.ofEpochSecond(exp.asLong()) : null;
+        } catch (Exception e) {
+            logger.debug("Could not read the expiry of the access token", e);
+            return null;
+        }
+    }
+
+    private double secondsToExpiry() {
+        CachedToken token = current;
+        if (token == null || token.expiresAt() == null) {
+            return Double.NaN;
+        }
+        return Duration.between(Instant.now(), token.expiresAt()).toSeconds();
+    }
+
+    private record CachedToken(String value, Instant expiresAt) {
+
+        boolean usableAt(Instant now) {
+            return expiresAt == null || now.plus(EXPIRY_MARGIN).isBefore(expiresAt);
+        }
+    }
+}
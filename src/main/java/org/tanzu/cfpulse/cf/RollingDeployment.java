@@ -0,0 +1,191 @@
+package org.tanzu.cfpulse.cf;
+
+import org.cloudfoundry.client.CloudFoundryClient;
+import org.cloudfoundry.client.v3.Relationship;
+import org.cloudfoundry.client.v3.Resource;
+import org.cloudfoundry.client.v3.ToOneRelationship;
+import org.cloudfoundry.client.v3.applications.GetApplicationProcessRequest;
+import org.cloudfoundry.client.v3.applications.GetApplicationProcessResponse;
+import org.cloudfoundry.client.v3.applications.ListApplicationPackagesRequest;
+import org.cloudfoundry.client.v3.builds.BuildState;
+import org.cloudfoundry.client.v3.builds.CreateBuildRequest;
+import org.cloudfoundry.client.v3.builds.GetBuildRequest;
+import org.cloudfoundry.client.v3.deployments.CancelDeploymentRequest;
+import org.cloudfoundry.client.v3.deployments.CreateDeploymentRequest;
+import org.cloudfoundry.client.v3.deployments.Deployment;
+import org.cloudfoundry.client.v3.deployments.DeploymentRelationships;
+import org.cloudfoundry.client.v3.deployments.DeploymentStatusReason;
+import org.cloudfoundry.client.v3.deployments.DeploymentStatusValue;
+import org.cloudfoundry.client.v3.deployments.GetDeploymentRequest;
+import org.cloudfoundry.client.v3.deployments.Process;
+import org.cloudfoundry.client.v3.packages.PackageState;
+import org.cloudfoundry.client.v3.processes.GetProcessStatisticsRequest;
+import org.cloudfoundry.client.v3.processes.ProcessState;
+import org.cloudfoundry.client.v3.processes.ProcessStatisticsResource;
+import org.cloudfoundry.util.DelayUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Restarts, restages and redeploys applications through v3 rolling deployments, so new instances
+ * are brought up and pass their health checks before the old ones are stopped and the application
+ * keeps serving at full capacity throughout. Progress is reported as the number of new instances
+ * running. A deployment that does not finish in time, or whose new instances crash, is cancelled
+ * so the application rolls back to its previous droplet.
+ */
+@Component
+public class RollingDeployment {
+
+    private static final Logger logger = LoggerFactory.getLogger(RollingDeployment.class);
+
+    private static final Duration MIN_POLL_INTERVAL = Duration.ofSeconds(1);
+    private static final Duration MAX_POLL_INTERVAL = Duration.ofSeconds(5);
+
+    private final CloudFoundryOperationsFactory operationsFactory;
+    private final NameResolver nameResolver;
+    private final Duration stagingTimeout;
+    private final Duration deploymentTimeout;
+
+    public RollingDeployment(CloudFoundryOperationsFactory operationsFactory, NameResolver nameResolver,
+                             @Value("${cf.deployments.staging-timeout:15m}") Duration stagingTimeout,
+                             @Value("${cf.deployments.timeout:10m}") Duration deploymentTimeout) {
+        this.operationsFactory = operationsFactory;
+        this.nameResolver = nameResolver;
+        this.stagingTimeout = stagingTimeout;
+        this.deploymentTimeout = deploymentTimeout;
+    }
+
+    /**
+     * Replace the instances of an application with new ones running its current droplet
+     */
+    public Mono<Void> restart(String applicationName, String organization, String space, Consumer<String> stage) {
+        CloudFoundryClient client = operationsFactory.getCloudFoundryClient();
+        return nameResolver.withApplicationId(organization, space, applicationName,
+                applicationId -> deploy(client, applicationId, null, applicationName, stage));
+    }
+
+    /**
+     * Stage the most recently uploaded package of an application and roll its instances onto the
+     * resulting droplet. Used both to restage and to finish a push whose bits were just uploaded.
+     */
+    public Mono<Void> restage(String applicationName, String organization, String space, Consumer<String> stage) {
+        CloudFoundryClient client = operationsFactory.getCloudFoundryClient();
+        return nameResolver.withApplicationId(organization, space, applicationName,
+                applicationId -> latestPackage(client, applicationId)
+                        .doOnNext(packageId -> stage.accept("STAGING"))
+                        .flatMap(packageId -> build(client, packageId))
+                        .flatMap(dropletId -> deploy(client, applicationId, dropletId, applicationName, stage)));
+    }
+
+    private static Mono<String> latestPackage(CloudFoundryClient client, String applicationId) {
+        return client.applicationsV3()
+                .listPackages(ListApplicationPackagesRequest.builder()
+                        .applicationId(applicationId)
+                        .state(PackageState.READY)
+                        .orderBy("-created_at")
+                        .perPage(1)
+                        .build())
+                .flatMap(response -> Mono.justOrEmpty(response.getResources().stream().findFirst()))
+                .map(Resource::getId)
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("Application has no uploaded package to stage")));
+    }
+
+    private Mono<String> build(CloudFoundryClient client, String packageId) {
+        return client.builds()
+                .create(CreateBuildRequest.builder()
+                        .getPackage(Relationship.builder().id(packageId).build())
+                        .build())
+                .flatMap(created -> client.builds()
+                        .get(GetBuildRequest.builder().buildId(created.getId()).build())
+                        .filter(build -> build.getState() != BuildState.STAGING)
+                        .repeatWhenEmpty(DelayUtils.exponentialBackOff(MIN_POLL_INTERVAL, MAX_POLL_INTERVAL, stagingTimeout)))
+                .flatMap(build -> build.getState() == BuildState.STAGED
+                        ? Mono.just(build.getDroplet().getId())
+                        : Mono.error(new IllegalStateException("Staging failed: " + build.getError())))
+                .doOnNext(dropletId -> logger.debug("Staged package {} into droplet {}", packageId, dropletId));
+    }
+
+    private Mono<Void> deploy(CloudFoundryClient client, String applicationId, String dropletId,
+                              String applicationName, Consumer<String> stage) {
+        return desiredInstances(client, applicationId)
+                .flatMap(desired -> client.deploymentsV3()
+                        .create(CreateDeploymentRequest.builder()
+                                .droplet(dropletId != null ? Relationship.builder().id(dropletId).build() : null)
+                                .relationships(DeploymentRelationships.builder()
+                                        .app(ToOneRelationship.builder()
+                                                .data(Relationship.builder().id(applicationId).build())
+                                                .build())
+                                        .build())
+                                .build())
+                        .flatMap(created -> {
+                            logger.info("Started rolling deployment {} of {} to {} instances", created.getId(), applicationName, desired);
+                            stage.accept("DEPLOYING 0/" + desired);
+                            return awaitDeployment(client, created.getId(), desired, stage)
+                                    .onErrorResume(error -> cancel(client, created.getId(), applicationName)
+                                            .then(Mono.error(error)));
+                        }))
+                .doOnSuccess(v -> logger.info("Rolling deployment of {} completed", applicationName));
+    }
+
+    private Mono<Void> awaitDeployment(CloudFoundryClient client, String deploymentId, int desired, Consumer<String> stage) {
+        return Mono.defer(() -> client.deploymentsV3().get(GetDeploymentRequest.builder().deploymentId(deploymentId).build()))
+                .flatMap(deployment -> reportProgress(client, deployment, desired, stage).thenReturn(deployment))
+                .filter(deployment -> deployment.getStatus().getValue() == DeploymentStatusValue.FINALIZED)
+                .repeatWhenEmpty(DelayUtils.exponentialBackOff(MIN_POLL_INTERVAL, MAX_POLL_INTERVAL, deploymentTimeout))
+                .flatMap(deployment -> deployment.getStatus().getReason() == DeploymentStatusReason.DEPLOYED
+                        ? Mono.empty()
+                        : Mono.error(new IllegalStateException("Deployment " + deploymentId + " ended as "
+                                + deployment.getStatus().getReason())));
+    }
+
+    /**
+     * Report how many new instances are running, failing as soon as one of them has crashed
+     */
+    private static Mono<Void> reportProgress(CloudFoundryClient client, Deployment deployment, int desired,
+                                             Consumer<String> stage) {
+        List<String> processIds = deployment.getNewProcesses().stream()
+                .filter(process -> "web".equals(process.getType()))
+                .map(Process::getId)
+                .toList();
+        if (processIds.isEmpty()) {
+            return Mono.empty();
+        }
+        return client.processes()
+                .getStatistics(GetProcessStatisticsRequest.builder().processId(processIds.get(0)).build())
+                .flatMap(statistics -> {
+                    List<ProcessStatisticsResource> instances = statistics.getResources();
+                    long running = instances.stream().filter(instance -> instance.getState() == ProcessState.RUNNING).count();
+                    stage.accept("DEPLOYING " + running + "/" + desired);
+                    return instances.stream()
+                            .filter(instance -> instance.getState() == ProcessState.CRASHED)
+                            .findFirst()
+                            .<Mono<Void>>map(crashed -> Mono.error(new IllegalStateException("New instance "
+                                    + crashed.getIndex() + " crashed" + (crashed.getDetails() != null ? ": " + crashed.getDetails() : ""))))
+                            .orElseGet(Mono::empty);
+                });
+    }
+
+    private static Mono<Integer> desiredInstances(CloudFoundryClient client, String applicationId) {
+        return client.applicationsV3()
+                .getProcess(GetApplicationProcessRequest.builder().applicationId(applicationId).type("web").build())
+                .map(GetApplicationProcessResponse::getInstances);
+    }
+
+    private static Mono<Void> cancel(CloudFoundryClient client, String deploymentId, String applicationName) {
+        return client.deploymentsV3()
+                .cancel(CancelDeploymentRequest.builder().deploymentId(deploymentId).build())
+                .doOnSuccess(response -> logger.warn("Cancelled rolling deployment {} of {}", deploymentId, applicationName))
+                .onErrorResume(error -> {
+                    logger.warn("Could not cancel rolling deployment {} of {}: {}", deploymentId, applicationName, error.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+}
@@ -0,0 +1,399 @@
+package org.tanzu.cfpulse.cf;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.cloudfoundry.client.CloudFoundryClient;
+import org.cloudfoundry.client.v3.PaginatedResponse;
+import org.cloudfoundry.client.v3.Resource;
+import org.cloudfoundry.client.v3.applications.ApplicationResource;
+import org.cloudfoundry.client.v3.applications.ListApplicationsRequest;
+import org.cloudfoundry.client.v3.domains.DomainResource;
+import org.cloudfoundry.client.v3.domains.ListDomainsRequest;
+import org.cloudfoundry.client.v3.organizations.ListOrganizationsRequest;
+import org.cloudfoundry.client.v3.organizations.OrganizationResource;
+import org.cloudfoundry.client.v3.routes.ListRoutesRequest;
+import org.cloudfoundry.client.v3.routes.RouteResource;
+import org.cloudfoundry.client.v3.spaces.ListSpacesRequest;
+import org.cloudfoundry.client.v3.spaces.SpaceResource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Every route of the foundation, indexed by hostname and path so a URL resolves to the org, space
+ * and applications serving it with a couple of hash lookups. A URL's hostname is looked up
+ * exactly, then as a wildcard route of its parent domain, and the routes found are matched on the
+ * longest path prefix, one path segment at a time, the way the router does.
+ * <p>
+ * The index is built by listing routes, applications, spaces, orgs and domains concurrently,
+ * fetching the pages of each listing in parallel. It is rebuilt in the background once older than
+ * the refresh interval. Route changes made through this server are applied to it straight away,
+ * and replayed onto a rebuild that was already in flight.
+ */
+@Component
+public class RouteIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(RouteIndex.class);
+
+    /** The largest page the v3 API serves, so a listing takes as few requests as possible */
+    private static final int PAGE_SIZE = 5000;
+
+    private final CloudFoundryOperationsFactory operationsFactory;
+    private final Duration refreshInterval;
+    private final int parallelism;
+    private final boolean warmUp;
+
+    private final AtomicReference<Mono<Void>> inFlight = new AtomicReference<>();
+    private final Object lock = new Object();
+    private volatile Index index;
+    /** Changes made while a rebuild is in flight, to replay onto the rebuilt index */
+    private List<Consumer<Index>> pending;
+
+    public RouteIndex(CloudFoundryOperationsFactory operationsFactory, MeterRegistry meterRegistry,
+                      @Value("${cf.routes.index.refresh-interval:10m}") Duration refreshInterval,
+                      @Value("${cf.routes.index.parallelism:8}") int parallelism,
+                      @Value("${cf.routes.index.warm-up:true}") boolean warmUp) {
+        this.operationsFactory = operationsFactory;
+        this.refreshInterval = refreshInterval;
+        this.parallelism = parallelism;
+        this.warmUp = warmUp;
+        Gauge.builder("cf.routes.indexed", this, routeIndex -> {
+                    Index current = routeIndex.index;
+                    return current != null ? current.size() : 0;
+                })
+                .description("Routes held in the foundation route index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Build the index in the background so the first lookup does not wait for it
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (warmUp) {
+            rebuild().subscribeOn(Schedulers.boundedElastic())
+                    .subscribe(null, error -> logger.warn("Could not build the route index: {}", error.getMessage()));
+        }
+    }
+
+    /**
+     * Find the route that serves {@code url}
+     *
+     * @throws IllegalArgumentException when {@code url} is not a valid URL
+     */
+    public RouteLookup lookup(String url) {
+        URI uri = URI.create(url.contains("://") ? url.trim() : "http://" + url.trim());
+        if (uri.getHost() == null) {
+            throw new IllegalArgumentException("'" + url + "' does not contain a hostname");
+        }
+        Index current = current();
+        String hostname = uri.getHost().toLowerCase(Locale.ROOT);
+        int port = uri.getPort();
+        String path = uri.getRawPath() != null ? uri.getRawPath() : "";
+
+        IndexedRoute route = null;
+        if (port != -1 && port != 80 && port != 443) {
+            route = current.match(hostname + ":" + port, "");
+        }
+        if (route == null) {
+            route = current.match(hostname, path);
+        }
+        int dot = hostname.indexOf('.');
+        if (route == null && dot > 0) {
+            route = current.match("*" + hostname.substring(dot), path);
+        }
+        return new RouteLookup(url, route != null, route != null ? route.url() : null,
+                route != null ? route.organization() : null, route != null ? route.space() : null,
+                route != null ? route.applications() : List.of(), current.builtAt);
+    }
+
+    public void created(String domain, String host, String path, Integer port, String organization, String space,
+                        String routeId) {
+        apply(index -> index.put(key(host, domain, port), normalise(path),
+                existing -> existing != null ? existing.with(routeId)
+                        : new IndexedRoute(routeId, url(host, domain, path, port), organization, space, List.of())));
+    }
+
+    public void deleted(String domain, String host, String path, Integer port) {
+        apply(index -> index.put(key(host, domain, port), normalise(path), existing -> null));
+    }
+
+    public void mapped(String domain, String host, String path, Integer port, String organization, String space,
+                       String routeId, String applicationName, String applicationId) {
+        RouteApplication application = new RouteApplication(applicationName, applicationId);
+        apply(index -> index.put(key(host, domain, port), normalise(path), existing -> {
+            IndexedRoute route = existing != null ? existing.with(routeId)
+                    : new IndexedRoute(routeId, url(host, domain, path, port), organization, space, List.of());
+            if (route.applications().stream().anyMatch(mapped -> mapped.applicationId().equals(applicationId))) {
+                return route;
+            }
+            List<RouteApplication> applications = new ArrayList<>(route.applications());
+            applications.add(application);
+            return route.with(applications);
+        }));
+    }
+
+    public void unmapped(String domain, String host, String path, Integer port, String applicationId) {
+        apply(index -> index.put(key(host, domain, port), normalise(path), existing -> existing == null ? null
+                : existing.with(existing.applications().stream()
+                        .filter(application -> !application.applicationId().equals(applicationId))
+                        .toList())));
+    }
+
+    public void removed(String routeId) {
+        apply(index -> index.remove(routeId));
+    }
+
+    private void apply(Consumer<Index> change) {
+        synchronized (lock) {
+            Index current = index;
+            if (current != null) {
+                change.accept(current);
+            }
+            if (pending != null) {
+                pending.add(change);
+            }
+        }
+    }
+
+    private Index current() {
+        Index current = index;
+        if (current == null) {
+            rebuild().block();
+            return index;
+        }
+        if (current.builtAt.plus(refreshInterval).isBefore(Instant.now()) && inFlight.get() == null) {
+            rebuild().subscribeOn(Schedulers.boundedElastic())
+                    .subscribe(null, error -> logger.warn("Could not rebuild the route index: {}", error.getMessage()));
+        }
+        return current;
+    }
+
+    /**
+     * Rebuild the index, sharing a rebuild that is already running
+     */
+    private Mono<Void> rebuild() {
+        while (true) {
+            Mono<Void> existing = inFlight.get();
+            if (existing != null) {
+                return existing;
+            }
+            AtomicReference<Mono<Void>> self = new AtomicReference<>();
+            Mono<Void> created = Mono.defer(this::build)
+                    .doFinally(signal -> inFlight.compareAndSet(self.get(), null))
+                    .cache();
+            self.set(created);
+            synchronized (lock) {
+                if (inFlight.compareAndSet(null, created)) {
+                    // Collect changes from now on, not from when the rebuild is first subscribed to
+                    pending = new ArrayList<>();
+                    return created;
+                }
+            }
+        }
+    }
+
+    private Mono<Void> build() {
+        long start = System.nanoTime();
+        CloudFoundryClient client = operationsFactory.getCloudFoundryClient();
+        return Mono.zip(
+                        names(listAll(page -> client.domainsV3().list(ListDomainsRequest.builder().perPage(PAGE_SIZE).page(page).build())),
+                                DomainResource::getName),
+                        names(listAll(page -> client.organizationsV3().list(ListOrganizationsRequest.builder().perPage(PAGE_SIZE).page(page).build())),
+                                OrganizationResource::getName),
+                        listAll(page -> client.spacesV3().list(ListSpacesRequest.builder().perPage(PAGE_SIZE).page(page).build()))
+                                .collectMap(Resource::getId),
+                        names(listAll(page -> client.applicationsV3().list(ListApplicationsRequest.builder().perPage(PAGE_SIZE).page(page).build())),
+                                ApplicationResource::getName),
+                        listAll(page -> client.routesV3().list(ListRoutesRequest.builder().perPage(PAGE_SIZE).page(page).build()))
+                                .collectList())
+                .map(listings -> {
+                    Map<String, String> domains = listings.getT1();
+                    Map<String, String> organizations = listings.getT2();
+                    Map<String, SpaceResource> spaces = listings.getT3();
+                    Map<String, String> applications = listings.getT4();
+                    Index built = new Index();
+                    for (RouteResource route : listings.getT5()) {
+                        String domain = domains.get(route.getRelationships().getDomain().getData().getId());
+                        if (domain == null) {
+                            continue;
+                        }
+                        SpaceResource space = spaces.get(route.getRelationships().getSpace().getData().getId());
+                        String organization = space != null
+                                ? organizations.get(space.getRelationships().getOrganization().getData().getId())
+                                : null;
+                        List<RouteApplication> targets = route.getDestinations() == null ? List.of() : route.getDestinations().stream()
+                                .map(destination -> destination.getApplication().getApplicationId())
+                                .distinct()
+                                .map(id -> new RouteApplication(applications.get(id), id))
+                                .toList();
+                        built.put(key(route.getHost(), domain, route.getPort()), normalise(route.getPath()),
+                                existing -> new IndexedRoute(route.getId(), route.getUrl(), organization,
+                                        space != null ? space.getName() : null, targets));
+                    }
+                    return built;
+                })
+                .doOnNext(built -> {
+                    synchronized (lock) {
+                        pending.forEach(change -> change.accept(built));
+                        index = built;
+                    }
+                    logger.info("Indexed {} routes in {}ms", built.size(), Duration.ofNanos(System.nanoTime() - start).toMillis());
+                })
+                .doFinally(signal -> {
+                    synchronized (lock) {
+                        pending = null;
+                    }
+                })
+                .then();
+    }
+
+    /**
+     * Every resource of a listing. The first page gives the page count, and the remaining pages
+     * are then fetched concurrently.
+     */
+    private <T> Flux<T> listAll(Function<Integer, Mono<? extends PaginatedResponse<T>>> pages) {
+        return pages.apply(1).flatMapMany(first -> {
+            int total = first.getPagination().getTotalPages() != null ? first.getPagination().getTotalPages() : 1;
+            return Flux.fromIterable(first.getResources())
+                    .concatWith(Flux.range(2, Math.max(0, total - 1))
+                            .flatMap(pages::apply, parallelism)
+                            .flatMapIterable(PaginatedResponse::getResources));
+        });
+    }
+
+    private static <T extends Resource> Mono<Map<String, String>> names(Flux<T> resources, Function<T, String> name) {
+        return resources.collectMap(Resource::getId, name);
+    }
+
+    private static String key(String host, String domain, Integer port) {
+        String hostname = host == null || host.isEmpty() ? domain : host + "." + domain;
+        return hostname.toLowerCase(Locale.ROOT) + (port != null ? ":" + port : "");
+    }
+
+    private static String normalise(String path) {
+        if (path == null || path.isEmpty() || path.equals("/")) {
+            return "";
+        }
+        return path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+    }
+
+    private static String url(String host, String domain, String path, Integer port) {
+        return (host != null && !host.isEmpty() ? host + "." : "") + domain + (port != null ? ":" + port : "")
+                + (path != null ? path : "");
+    }
+
+    /**
+     * Routes by hostname, then by path. Route ids are tracked so a route deleted by id can be found.
+     */
+    private static final class Index {
+
+        private final ConcurrentMap<String, ConcurrentMap<String, IndexedRoute>> byHostname = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, RouteKey> byId = new ConcurrentHashMap<>();
+        private final Instant builtAt = Instant.now();
+
+        /**
+         * Replace the route at {@code hostname} and {@code path} with what {@code change} returns for
+         * it, removing it when that is null
+         */
+        void put(String hostname, String path, Function<IndexedRoute, IndexedRoute> change) {
+            byHostname.compute(hostname, (h, paths) -> {
+                ConcurrentMap<String, IndexedRoute> routes = paths != null ? paths : new ConcurrentHashMap<>();
+                IndexedRoute before = routes.get(path);
+                IndexedRoute after = change.apply(before);
+                if (before != null && before.routeId() != null) {
+                    byId.remove(before.routeId());
+                }
+                if (after != null) {
+                    routes.put(path, after);
+                    if (after.routeId() != null) {
+                        byId.put(after.routeId(), new RouteKey(hostname, path));
+                    }
+                } else {
+                    routes.remove(path);
+                }
+                return routes.isEmpty() ? null : routes;
+            });
+        }
+
+        int size() {
+            return byHostname.values().stream().mapToInt(Map::size).sum();
+        }
+
+        void remove(String routeId) {
+            RouteKey key = byId.get(routeId);
+            if (key != null) {
+                put(key.hostname(), key.path(), existing -> null);
+            }
+        }
+
+        /**
+         * The route on {@code hostname} with the longest path that is {@code path} or one of its
+         * parent paths
+         */
+        IndexedRoute match(String hostname, String path) {
+            Map<String, IndexedRoute> routes = byHostname.get(hostname);
+            if (routes == null) {
+                return null;
+            }
+            String candidate = normalise(path);
+            while (true) {
+                IndexedRoute route = routes.get(candidate);
+                if (route != null || candidate.isEmpty()) {
+                    return route;
+                }
+                candidate = candidate.substring(0, Math.max(0, candidate.lastIndexOf('/')));
+            }
+        }
+    }
+
+    private record RouteKey(String hostname, String path) {}
+
+    private record IndexedRoute(String routeId, String url, String organization, String space,
+                                List<RouteApplication> applications) {
+
+        IndexedRoute with(List<RouteApplication> applications) {
+            return new IndexedRoute(routeId, url, organization, space, List.copyOf(applications));
+        }
+
+        IndexedRoute with(String routeId) {
+            return routeId.equals(this.routeId) ? this : new IndexedRoute(routeId, url, organization, space, applications);
+        }
+    }
+
+    /**
+     * An application a route sends traffic to
+     */
+    public record RouteApplication(String applicationName, String applicationId) {}
+
+    /**
+     * @param url           the URL that was looked up
+     * @param matched       whether a route serves it
+     * @param route         the matching route
+     * @param organization  the organization of the route
+     * @param space         the space of the route
+     * @param applications  the applications the route sends traffic to; empty for an unmapped route
+     * @param indexedAt     when the index was last rebuilt from the API
+     */
+    public record RouteLookup(String url, boolean matched, String route, String organization, String space,
+                              List<RouteApplication> applications, Instant indexedAt) {}
+}
@@ -0,0 +1,163 @@
+package org.tanzu.cfpulse.cf;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache for space-scoped listings (applications, service instances, network policies),
+ * which also cuts cursor-addressed pages from the cached snapshots. Routes are paged by the v3 API
+ * itself and are not held here, but share the cursor format and the page size limits.
+ * Entries are keyed by the resolved org/space pair and expire after a configurable TTL. Every load
+ * gets a new snapshot version, and a cursor is only honoured against the snapshot it was cut from.
+ * Mutating tools invalidate every listing of the space they touch. A zero TTL disables caching:
+ * loads then bypass the cache entirely rather than serializing on its per-key lock.
+ * <p>
+ * A snapshot that a cursor points to is also pinned by version in a separate store, which expires
+ * a snapshot once no page has been read from it for the cursor idle timeout. Expiry and
+ * invalidation of the read-through entry only change what the next listing without a cursor
+ * returns; a cursor keeps paging through its own snapshot until that snapshot leaves the store.
+ */
+@Component
+public class SpaceListingCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpaceListingCache.class);
+
+    public enum Listing {
+        APPLICATIONS,
+        SERVICE_INSTANCES,
+        ROUTES,
+        NETWORK_POLICIES
+    }
+
+    private record ListingKey(String organization, String space, Listing listing) {}
+
+    private record Snapshot(ListingKey key, List<?> items, long version) {}
+
+    private final CloudFoundryOperationsFactory operationsFactory;
+    private final Cache<ListingKey, Snapshot> cache;
+    /** Snapshots that issued cursors point to, by version */
+    private final Cache<Long, Snapshot> pinned;
+    private final AtomicLong versions = new AtomicLong();
+    private final boolean enabled;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public SpaceListingCache(CloudFoundryOperationsFactory operationsFactory,
+                             MeterRegistry meterRegistry,
+                             @Value("${cf.cache.listings.ttl:30s}") Duration ttl,
+                             @Value("${cf.cache.listings.max-size:1000}") long maxSize,
+                             @Value("${cf.pagination.default-page-size:100}") int defaultPageSize,
+                             @Value("${cf.pagination.max-page-size:1000}") int maxPageSize,
+                             @Value("${cf.pagination.cursor-idle-timeout:15m}") Duration cursorIdleTimeout,
+                             @Value("${cf.pagination.max-pinned-snapshots:200}") long maxPinnedSnapshots) {
+        this.operationsFactory = operationsFactory;
+        this.enabled = !ttl.isZero();
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "cf.listings");
+        this.pinned = Caffeine.newBuilder()
+                .expireAfterAccess(cursorIdleTimeout)
+                .maximumSize(maxPinnedSnapshots)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, pinned, "cf.listings.cursors");
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> List<T> get(Listing listing, String organization, String space, Supplier<List<T>> loader) {
+        return (List<T>) snapshot(new ListingKey(resolveOrganization(organization), resolveSpace(space), listing), loader).items();
+    }
+
+    /**
+     * Return one window of a listing. The first page is cut from the cached snapshot, and later pages
+     * from the snapshot their cursor pins, so consecutive pages stay consistent and are served
+     * without further API calls.
+     *
+     * @throws IllegalArgumentException when the cursor was issued for another listing, org or space, or
+     *                                  its snapshot has not been paged for longer than the idle timeout
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Page<T> page(Listing listing, String organization, String space, String cursor, Integer pageSize,
+                            Supplier<List<T>> loader) {
+        ListingKey key = new ListingKey(resolveOrganization(organization), resolveSpace(space), listing);
+        ListingCursor position = ListingCursor.decode(cursor, listing, key.organization(), key.space());
+        int size = pageSize(pageSize);
+        Snapshot snapshot = position != null ? pinned.getIfPresent(position.version()) : snapshot(key, loader);
+        if (snapshot == null || !snapshot.key().equals(key)) {
+            throw new IllegalArgumentException("This cursor for the " + listing + " listing of " + key.organization() + "/"
+                    + key.space() + " has expired; list again without a cursor");
+        }
+        List<T> items = (List<T>) snapshot.items();
+        int from = Math.min(position != null ? position.position() : 0, items.size());
+        int to = Math.min(from + size, items.size());
+        String nextCursor = null;
+        if (to < items.size()) {
+            pinned.put(snapshot.version(), snapshot);
+            nextCursor = new ListingCursor(listing, key.organization(), key.space(), snapshot.version(), to, size).encode();
+        }
+        return new Page<>(List.copyOf(items.subList(from, to)), items.size(), nextCursor);
+    }
+
+    /**
+     * The page size to use for a request, within the configured limits
+     */
+    public int pageSize(Integer requested) {
+        return requested != null && requested > 0 ? Math.min(requested, maxPageSize) : defaultPageSize;
+    }
+
+    private Snapshot snapshot(ListingKey key, Supplier<? extends List<?>> loader) {
+        if (!enabled) {
+            return new Snapshot(key, List.copyOf(loader.get()), versions.incrementAndGet());
+        }
+        return cache.get(key, k -> {
+            logger.debug("Loading {} for org={}, space={}", k.listing(), k.organization(), k.space());
+            return new Snapshot(k, List.copyOf(loader.get()), versions.incrementAndGet());
+        });
+    }
+
+    public void invalidate(String organization, String space) {
+        String resolvedOrg = resolveOrganization(organization);
+        String resolvedSpace = resolveSpace(space);
+        for (Listing listing : Listing.values()) {
+            cache.invalidate(new ListingKey(resolvedOrg, resolvedSpace, listing));
+        }
+        logger.debug("Invalidated cached listings for org={}, space={}", resolvedOrg, resolvedSpace);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    public long getSize() {
+        return cache.estimatedSize();
+    }
+
+    private String resolveOrganization(String organization) {
+        return organization != null ? organization : operationsFactory.getDefaultOrganization();
+    }
+
+    private String resolveSpace(String space) {
+        return space != null ? space : operationsFactory.getDefaultSpace();
+    }
+}
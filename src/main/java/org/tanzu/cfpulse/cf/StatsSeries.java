@@ -0,0 +1,154 @@
+package org.tanzu.cfpulse.cf;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Time series of instance stats for one application, held at several resolutions. Every tier is a
+ * ring of fixed-width buckets backed by primitive arrays that are allocated up front, so the
+ * memory a series takes is known before the first sample arrives and never grows. A sample is
+ * folded into the current bucket of every tier; the finest tier keeps each sample on its own and
+ * the coarser ones keep the minimum, maximum, sum and count of the samples in their bucket.
+ */
+final class StatsSeries {
+
+    private static final int METRICS = InstanceStatsSampler.Metric.values().length;
+
+    private final Tier[] tiers;
+    private final double[] latest = new double[METRICS];
+    private long latestAt = -1;
+
+    /**
+     * @param interval    width of the finest buckets in milliseconds, normally the sampling interval
+     * @param points      number of buckets kept at each resolution
+     * @param multipliers width of each tier as a multiple of {@code interval}, finest first
+     */
+    StatsSeries(long interval, int points, int... multipliers) {
+        this.tiers = Arrays.stream(multipliers).mapToObj(multiplier -> new Tier(interval * multiplier, points)).toArray(Tier[]::new);
+    }
+
+    /**
+     * Heap taken by the arrays of a series with these dimensions
+     */
+    static long bytes(int tiers, int points) {
+        // starts and counts, then min, max and sum for every metric
+        return (long) tiers * points * (Long.BYTES + Integer.BYTES + 3L * METRICS * Double.BYTES);
+    }
+
+    synchronized void add(long timestamp, double[] values) {
+        for (Tier tier : tiers) {
+            tier.add(timestamp, values);
+        }
+        System.arraycopy(values, 0, latest, 0, METRICS);
+        latestAt = timestamp;
+    }
+
+    synchronized long latestAt() {
+        return latestAt;
+    }
+
+    /**
+     * Summarise the samples taken from {@code from} onwards, read from the finest tier that still
+     * covers the whole window, or the coarsest one when none does
+     */
+    synchronized Summary summarise(long from, long now) {
+        Tier tier = tiers[tiers.length - 1];
+        for (Tier candidate : tiers) {
+            if (candidate.width * candidate.starts.length >= now - from) {
+                tier = candidate;
+                break;
+            }
+        }
+        return tier.summarise(from, latest);
+    }
+
+    /**
+     * @param resolution width of the buckets the summary was read from, in milliseconds
+     * @param points     number of buckets in the window
+     * @param metrics    the summary of each metric, or an empty list when the window holds no samples
+     */
+    record Summary(long resolution, int points, List<InstanceStatsSampler.MetricSummary> metrics) {}
+
+    private static final class Tier {
+
+        private final long width;
+        private final long[] starts;
+        private final int[] counts;
+        private final double[] min;
+        private final double[] max;
+        private final double[] sum;
+        private int head;
+        private int size;
+
+        Tier(long width, int points) {
+            this.width = width;
+            this.starts = new long[points];
+            this.counts = new int[points];
+            this.min = new double[points * METRICS];
+            this.max = new double[points * METRICS];
+            this.sum = new double[points * METRICS];
+        }
+
+        void add(long timestamp, double[] values) {
+            long start = timestamp - Math.floorMod(timestamp, width);
+            int newest = (head + size - 1) % starts.length;
+            if (size > 0 && start < starts[newest]) {
+                return;
+            }
+            if (size == 0 || start > starts[newest]) {
+                if (size < starts.length) {
+                    size++;
+                } else {
+                    head = (head + 1) % starts.length;
+                }
+                newest = (head + size - 1) % starts.length;
+                starts[newest] = start;
+                counts[newest] = 0;
+                Arrays.fill(min, newest * METRICS, (newest + 1) * METRICS, Double.POSITIVE_INFINITY);
+                Arrays.fill(max, newest * METRICS, (newest + 1) * METRICS, Double.NEGATIVE_INFINITY);
+                Arrays.fill(sum, newest * METRICS, (newest + 1) * METRICS, 0);
+            }
+            counts[newest]++;
+            for (int metric = 0; metric < METRICS; metric++) {
+                int slot = newest * METRICS + metric;
+                min[slot] = Math.min(min[slot], values[metric]);
+                max[slot] = Math.max(max[slot], values[metric]);
+                sum[slot] += values[metric];
+            }
+        }
+
+        Summary summarise(long from, double[] latest) {
+            int first = 0;
+            while (first < size && starts[(head + first) % starts.length] + width <= from) {
+                first++;
+            }
+            int points = size - first;
+            if (points == 0) {
+                return new Summary(width, 0, List.of());
+            }
+            InstanceStatsSampler.Metric[] metrics = InstanceStatsSampler.Metric.values();
+            List<InstanceStatsSampler.MetricSummary> summaries = new ArrayList<>(METRICS);
+            double[] peaks = new double[points];
+            for (int metric = 0; metric < METRICS; metric++) {
+                double low = Double.POSITIVE_INFINITY;
+                double high = Double.NEGATIVE_INFINITY;
+                double total = 0;
+                long samples = 0;
+                for (int i = 0; i < points; i++) {
+                    int bucket = (head + first + i) % starts.length;
+                    int slot = bucket * METRICS + metric;
+                    low = Math.min(low, min[slot]);
+                    high = Math.max(high, max[slot]);
+                    total += sum[slot];
+                    samples += counts[bucket];
+                    peaks[i] = max[slot];
+                }
+                Arrays.sort(peaks);
+                double p95 = peaks[(int) Math.ceil(0.95 * points) - 1];
+                summaries.add(new InstanceStatsSampler.MetricSummary(metrics[metric], low, high, total / samples, p95, latest[metric]));
+            }
+            return new Summary(width, points, summaries);
+        }
+    }
+}
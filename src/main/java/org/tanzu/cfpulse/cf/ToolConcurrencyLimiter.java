@@ -0,0 +1,104 @@
+package org.tanzu.cfpulse.cf;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounds the number of in-flight tool calls per tool class and across the whole foundation.
+ * Tool calls run on virtual threads, so waiting for a permit parks the caller instead of
+ * tying up a platform thread.
+ */
+@Component
+public class ToolConcurrencyLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ToolConcurrencyLimiter.class);
+
+    private final ToolConcurrencyProperties properties;
+    private final Semaphore foundationPermits;
+    private final ConcurrentHashMap<String, Semaphore> classPermits = new ConcurrentHashMap<>();
+
+    public ToolConcurrencyLimiter(ToolConcurrencyProperties properties) {
+        this.properties = properties;
+        this.foundationPermits = new Semaphore(properties.foundation(), true);
+    }
+
+    /**
+     * Acquire a permit for a tool call, waiting at most the configured acquire timeout.
+     * The class permit is taken first so that callers queued behind a saturated tool class
+     * do not hold foundation permits while they wait.
+     */
+    public Permit acquire(String toolClass) {
+        Semaphore classSemaphore = classSemaphore(toolClass);
+        long deadline = System.nanoTime() + properties.acquireTimeout().toNanos();
+
+        if (!tryAcquire(classSemaphore, deadline)) {
+            throw rejected(toolClass, "tool class limit of " + properties.limitFor(toolClass));
+        }
+        if (!tryAcquire(foundationPermits, deadline)) {
+            classSemaphore.release();
+            throw rejected(toolClass, "foundation limit of " + properties.foundation());
+        }
+        return new Permit(classSemaphore, foundationPermits);
+    }
+
+    /**
+     * Acquire a permit for work a tool call left running in the background, such as an async job,
+     * waiting for as long as it takes. Permits are taken in the same order as {@link #acquire}.
+     */
+    public Permit await(String toolClass) throws InterruptedException {
+        Semaphore classSemaphore = classSemaphore(toolClass);
+        classSemaphore.acquire();
+        try {
+            foundationPermits.acquire();
+        } catch (InterruptedException e) {
+            classSemaphore.release();
+            throw e;
+        }
+        return new Permit(classSemaphore, foundationPermits);
+    }
+
+    public int availableFoundationPermits() {
+        return foundationPermits.availablePermits();
+    }
+
+    private Semaphore classSemaphore(String toolClass) {
+        return classPermits.computeIfAbsent(toolClass, key -> new Semaphore(properties.limitFor(key), true));
+    }
+
+    private boolean tryAcquire(Semaphore semaphore, long deadline) {
+        try {
+            return semaphore.tryAcquire(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private RejectedExecutionException rejected(String toolClass, String limit) {
+        logger.warn("Rejected {} tool call after waiting {}: {} reached", toolClass, properties.acquireTimeout(), limit);
+        return new RejectedExecutionException("Too many concurrent " + toolClass + " calls (" + limit + " reached)");
+    }
+
+    public static final class Permit implements AutoCloseable {
+
+        private final Semaphore classSemaphore;
+        private final Semaphore foundationSemaphore;
+
+        private Permit(Semaphore classSemaphore, Semaphore foundationSemaphore) {
+            this.classSemaphore = classSemaphore;
+            this.foundationSemaphore = foundationSemaphore;
+        }
+
+        @Override
+        public void close() {
+            foundationSemaphore.release();
+            classSemaphore.release();
+        }
+    }
+}
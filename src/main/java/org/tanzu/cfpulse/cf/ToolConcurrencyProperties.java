@@ -0,0 +1,30 @@
+package org.tanzu.cfpulse.cf;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Concurrency limits applied to MCP tool invocations.
+ *
+ * @param foundation     maximum in-flight tool calls against the configured foundation
+ * @param perClass       default maximum in-flight tool calls per tool class
+ * @param acquireTimeout how long a call waits for a permit before being rejected
+ * @param classes        per-class overrides keyed by simple class name (e.g. CfApplicationCloner)
+ */
+@ConfigurationProperties("cf.tools.concurrency")
+public record ToolConcurrencyProperties(@DefaultValue("256") int foundation,
+                                        @DefaultValue("64") int perClass,
+                                        @DefaultValue("30s") Duration acquireTimeout,
+                                        Map<String, Integer> classes) {
+
+    public ToolConcurrencyProperties {
+        classes = classes != null ? Map.copyOf(classes) : Map.of();
+    }
+
+    public int limitFor(String toolClass) {
+        return classes.getOrDefault(toolClass, perClass);
+    }
+}
@@ -1,16 +1,22 @@
 package org.tanzu.cfpulse.clone;
 
+import org.cloudfoundry.client.CloudFoundryClient;
+import org.cloudfoundry.client.v3.applications.GetApplicationEnvironmentVariablesRequest;
+import org.cloudfoundry.client.v3.applications.UpdateApplicationEnvironmentVariablesRequest;
 import org.cloudfoundry.operations.applications.GetApplicationEnvironmentsRequest;
 import org.cloudfoundry.operations.applications.GetApplicationRequest;
-import org.cloudfoundry.operations.applications.SetEnvironmentVariableApplicationRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.tanzu.cfpulse.cf.CfBaseService;
 import org.tanzu.cfpulse.cf.CloudFoundryOperationsFactory;
+import org.tanzu.cfpulse.cf.NameResolver;
 import reactor.core.publisher.Mono;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * Service for handling application configuration including environment variables and buildpack information.
@@ -18,8 +24,13 @@ import java.util.Map;
 @Service
 public class ApplicationConfigService extends CfBaseService {
 
-    public ApplicationConfigService(CloudFoundryOperationsFactory operationsFactory) {
+    private static final Logger logger = LoggerFactory.getLogger(ApplicationConfigService.class);
+
+    private final NameResolver nameResolver;
+
+    public ApplicationConfigService(CloudFoundryOperationsFactory operationsFactory, NameResolver nameResolver) {
         super(operationsFactory);
+        this.nameResolver = nameResolver;
     }
 
     /**
@@ -71,26 +82,47 @@ public class ApplicationConfigService extends CfBaseService {
     }
 
     /**
-     * Set environment variables for an application
+     * Set environment variables for an application in a single batched update
      */
     public Mono<Void> setEnvironmentVariables(String appName, Map<String, String> envVars, String organization, String space) {
+        return setEnvironmentVariables(appName, envVars, false, organization, space);
+    }
+
+    /**
+     * Set environment variables for an application in a single batched update, optionally skipping
+     * variables that already hold the requested value
+     */
+    public Mono<Void> setEnvironmentVariables(String appName, Map<String, String> envVars, boolean skipUnchanged,
+                                              String organization, String space) {
         if (envVars == null || envVars.isEmpty()) {
             return Mono.empty(); // No environment variables to set
         }
-        
-        // Set each environment variable sequentially using reduce to chain them
-        return envVars.entrySet().stream()
-                .reduce(Mono.empty(),
-                        (mono, entry) -> mono.then(
-                            getOperations(organization, space).applications()
-                                .setEnvironmentVariable(SetEnvironmentVariableApplicationRequest.builder()
-                                        .name(appName)
-                                        .variableName(entry.getKey())
-                                        .variableValue(entry.getValue())
-                                        .build())
-                                .doOnSuccess(v -> System.out.println("Set environment variable: " + entry.getKey() + "=" + entry.getValue()))
-                        ),
-                        Mono::then);
+
+        CloudFoundryClient client = operationsFactory.getCloudFoundryClient();
+        return nameResolver.withApplicationId(organization, space, appName, appId ->
+                        (skipUnchanged ? changedVariables(client, appId, envVars) : Mono.just(envVars))
+                                .filter(variables -> !variables.isEmpty())
+                                .flatMap(variables -> client.applicationsV3()
+                                        .updateEnvironmentVariables(UpdateApplicationEnvironmentVariablesRequest.builder()
+                                                .applicationId(appId)
+                                                .vars(variables)
+                                                .build())
+                                        .doOnSuccess(r -> logger.info("Set {} environment variables on {}", variables.size(), appName))))
+                .then();
+    }
+
+    private Mono<Map<String, String>> changedVariables(CloudFoundryClient client, String appId, Map<String, String> envVars) {
+        return client.applicationsV3()
+                .getEnvironmentVariables(GetApplicationEnvironmentVariablesRequest.builder().applicationId(appId).build())
+                .map(response -> {
+                    Map<String, String> changed = new HashMap<>();
+                    envVars.forEach((key, value) -> {
+                        if (!Objects.equals(response.getVars().get(key), value)) {
+                            changed.put(key, value);
+                        }
+                    });
+                    return changed;
+                });
     }
 
     /**
@@ -1,16 +1,15 @@
 package org.tanzu.cfpulse.clone;
 
 import org.cloudfoundry.operations.applications.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.tanzu.cfpulse.cf.CfBaseService;
 import org.tanzu.cfpulse.cf.CloudFoundryOperationsFactory;
 import reactor.core.publisher.Mono;
 
-import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
-import java.util.Comparator;
 
 /**
  * Service for handling Cloud Foundry application deployment operations.
@@ -18,6 +17,8 @@ import java.util.Comparator;
 @Service
 public class ApplicationDeploymentService extends CfBaseService {
 
+    private static final Logger logger = LoggerFactory.getLogger(ApplicationDeploymentService.class);
+
     private final ApplicationConfigService configService;
 
     public ApplicationDeploymentService(CloudFoundryOperationsFactory operationsFactory, ApplicationConfigService configService) {
@@ -41,7 +42,8 @@ public class ApplicationDeploymentService extends CfBaseService {
                         .buildpack(buildpack)           // Use source app's buildpack
                         .stagingTimeout(Duration.ofMinutes(3)) // Allow time for buildpack-specific staging
                         .build())
-                .then(configService.setEnvironmentVariables(appName, config.environmentVariables(), organization, space));
+                // Only variables the target does not already hold are sent, so cloning onto an existing target is cheap
+                .then(configService.setEnvironmentVariables(appName, config.environmentVariables(), true, organization, space));
     }
 
     /**
@@ -57,7 +59,7 @@ public class ApplicationDeploymentService extends CfBaseService {
                         .stagingTimeout(Duration.ofMinutes(8))
                         .startupTimeout(Duration.ofMinutes(5))
                         .build())
-                .doOnSuccess(v -> System.out.println("Copied source from " + sourceApp + " to " + targetApp))
+                .doOnSuccess(v -> logger.info("Copied source from {} to {}", sourceApp, targetApp))
                 .then(
                         // Scale to match source configuration
                         getOperations(organization, space).applications()
@@ -67,7 +69,7 @@ public class ApplicationDeploymentService extends CfBaseService {
                                         .diskLimit(config.diskQuota())
                                         .instances(config.instances())
                                         .build())
-                                .doOnSuccess(v -> System.out.println("Scaled app to match source configuration"))
+                                .doOnSuccess(v -> logger.info("Scaled {} to match source configuration", targetApp))
                 )
                 .then(
                         // Start the app with the existing buildpack
@@ -77,45 +79,24 @@ public class ApplicationDeploymentService extends CfBaseService {
                                         .stagingTimeout(Duration.ofMinutes(8))
                                         .startupTimeout(Duration.ofMinutes(5))
                                         .build())
-                                .doOnSuccess(v -> System.out.println("Started app with pre-configured buildpack"))
+                                .doOnSuccess(v -> logger.info("Started {} with pre-configured buildpack", targetApp))
                 )
                 .then(
                         // Verify buildpack matches expected (should be guaranteed now)
                         configService.getBuildpackInfo(targetApp, organization, space)
                                 .flatMap(actualBuildpack -> {
                                     if (expectedBuildpack.equals(actualBuildpack)) {
-                                        System.out.println("✓ SUCCESS: Buildpack preserved during source copy - " + actualBuildpack);
+                                        logger.info("Buildpack preserved during source copy: {}", actualBuildpack);
                                         return Mono.empty();
                                     } else {
                                         String errorMsg = String.format(
                                                 "❌ UNEXPECTED: Buildpack changed during copy! Expected: %s, Actual: %s. " +
                                                 "This should not happen with buildpack-matched placeholder.",
                                                 expectedBuildpack, actualBuildpack);
-                                        System.err.println(errorMsg);
+                                        logger.error(errorMsg);
                                         return Mono.error(new RuntimeException(errorMsg));
                                     }
                                 })
                 );
     }
-
-    /**
-     * Clean up temporary directory and files
-     */
-    public void cleanup(Path tempDir) {
-        if (tempDir == null) return;
-
-        try (var pathStream = Files.walk(tempDir)) {
-            pathStream.sorted(Comparator.reverseOrder()) // Critical: files before directories
-                    .forEach(path -> {
-                        try {
-                            Files.deleteIfExists(path);
-                        } catch (IOException e) {
-                            // Silent cleanup - don't break main flow
-                            System.err.println("Warning: Could not delete " + path);
-                        }
-                    });
-        } catch (IOException e) {
-            System.err.println("Warning: Could not traverse directory " + tempDir);
-        }
-    }
 }
\ No newline at end of file
@@ -1,53 +1,148 @@
 package org.tanzu.cfpulse.clone;
 
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 /**
  * Generates buildpack-specific placeholder applications for consistent deployment.
  * Each buildpack type gets a minimal but valid application structure.
+ *
+ * Placeholder content does not depend on the target application, so each template is zipped in
+ * memory once, written to a content-addressed archive in a process-wide cache directory and
+ * reused by every subsequent clone.
  */
 @Component
 public class BuildpackPlaceholderGenerator {
 
-    public Path createPlaceholder(String appName, String buildpack) {
+    private static final Logger logger = LoggerFactory.getLogger(BuildpackPlaceholderGenerator.class);
+
+    private static final String PLACEHOLDER_NAME = "cf-clone";
+    private static final long ENTRY_TIMESTAMP = 315532800000L; // 1980-01-01, the earliest zip timestamp
+
+    private final ConcurrentHashMap<String, Path> archives = new ConcurrentHashMap<>();
+    private volatile Path cacheDirectory;
+
+    /**
+     * Return the cached placeholder archive for the given buildpack, building it on first use
+     */
+    public Path placeholderFor(String buildpack) {
+        String template = templateFor(buildpack);
         try {
-            Path result = createPlaceholderForBuildpack(appName, buildpack);
-            System.out.println("Created " + buildpack + " placeholder at: " + result.toAbsolutePath());
-            return result;
+            return archives.compute(template, (key, existing) ->
+                    existing != null && Files.isRegularFile(existing) ? existing : writeArchive(key));
         } catch (Exception e) {
-            System.err.println("Failed to create " + buildpack + " placeholder for app: " + appName);
-            System.err.println("Error: " + e.getMessage());
-            e.printStackTrace();
-            throw new RuntimeException("Failed to create " + buildpack + " placeholder for app: " + appName, e);
+            throw new RuntimeException("Failed to create " + template + " placeholder for buildpack: " + buildpack, e);
         }
     }
 
-    private Path createPlaceholderForBuildpack(String appName, String buildpack) throws IOException {
-        Path tempDir = Files.createTempDirectory("cf-" + buildpack.replace("_", "-") + "-" + appName);
-        
-        // Create buildpack-specific minimal content that can stage successfully
-        switch (buildpack.toLowerCase()) {
-            case "java_buildpack", "java_buildpack_offline" -> createJavaPlaceholder(tempDir, appName);
-            case "nodejs_buildpack" -> createNodeJsPlaceholder(tempDir, appName);
-            case "python_buildpack" -> createPythonPlaceholder(tempDir, appName);
-            case "go_buildpack" -> createGoPlaceholder(tempDir, appName);
-            case "php_buildpack" -> createPhpPlaceholder(tempDir, appName);
-            case "ruby_buildpack" -> createRubyPlaceholder(tempDir, appName);
-            case "staticfile_buildpack" -> createStaticPlaceholder(tempDir, appName);
+    @PreDestroy
+    public void deleteArchives() {
+        archives.values().forEach(path -> {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                logger.warn("Could not delete {}", path, e);
+            }
+        });
+        archives.clear();
+        if (cacheDirectory != null) {
+            try {
+                Files.deleteIfExists(cacheDirectory);
+            } catch (IOException e) {
+                logger.warn("Could not delete {}", cacheDirectory, e);
+            }
+        }
+    }
+
+    private String templateFor(String buildpack) {
+        // Select buildpack-specific minimal content that can stage successfully
+        return switch (buildpack.toLowerCase()) {
+            case "java_buildpack", "java_buildpack_offline" -> "java";
+            case "nodejs_buildpack" -> "nodejs";
+            case "python_buildpack" -> "python";
+            case "go_buildpack" -> "go";
+            case "php_buildpack" -> "php";
+            case "ruby_buildpack" -> "ruby";
+            case "staticfile_buildpack" -> "staticfile";
             default -> {
-                System.out.println("Unknown buildpack " + buildpack + ", falling back to static placeholder");
-                createStaticPlaceholder(tempDir, appName);
+                logger.warn("Unknown buildpack {}, falling back to static placeholder", buildpack);
+                yield "staticfile";
             }
+        };
+    }
+
+    private Map<String, String> contentFor(String template) {
+        return switch (template) {
+            case "java" -> javaPlaceholder();
+            case "nodejs" -> nodeJsPlaceholder();
+            case "python" -> pythonPlaceholder();
+            case "go" -> goPlaceholder();
+            case "php" -> phpPlaceholder();
+            case "ruby" -> rubyPlaceholder();
+            default -> staticPlaceholder();
+        };
+    }
+
+    private Path writeArchive(String template) {
+        try {
+            byte[] archive = zip(contentFor(template));
+            String digest = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(archive));
+            Path path = cacheDirectory().resolve(template + "-" + digest.substring(0, 16) + ".zip");
+            if (!Files.isRegularFile(path)) {
+                Files.write(path, archive);
+            }
+            logger.info("Cached {} placeholder archive at: {}", template, path.toAbsolutePath());
+            return path;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
-        
-        return tempDir;
     }
 
-    private void createJavaPlaceholder(Path tempDir, String appName) throws IOException {
+    private byte[] zip(Map<String, String> entries) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(bytes)) {
+            for (Map.Entry<String, String> entry : entries.entrySet()) {
+                ZipEntry zipEntry = new ZipEntry(entry.getKey());
+                zipEntry.setTime(ENTRY_TIMESTAMP); // Fixed timestamps keep the archive digest stable
+                out.putNextEntry(zipEntry);
+                out.write(entry.getValue().getBytes(StandardCharsets.UTF_8));
+                out.closeEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private Path cacheDirectory() throws IOException {
+        if (cacheDirectory == null) {
+            synchronized (this) {
+                if (cacheDirectory == null) {
+                    cacheDirectory = Files.createTempDirectory("cf-placeholders");
+                }
+            }
+        }
+        return cacheDirectory;
+    }
+
+    private Map<String, String> javaPlaceholder() {
         // Create a minimal Spring Boot JAR structure
         String manifestContent = """
                 Manifest-Version: 1.0
@@ -68,7 +163,7 @@ public class BuildpackPlaceholderGenerator {
                     @org.springframework.web.bind.annotation.RestController
                     static class PlaceholderController {
                         @org.springframework.web.bind.annotation.GetMapping("/")
-                        String home() { return "Placeholder for """ + appName + """
+                        String home() { return "Placeholder for """ + PLACEHOLDER_NAME + """
                         "; }
                     }
                 }
@@ -95,16 +190,16 @@ public class BuildpackPlaceholderGenerator {
                         </dependency>
                     </dependencies>
                 </project>
-                """.formatted(appName);
+                """.formatted(PLACEHOLDER_NAME);
         
-        Files.createDirectories(tempDir.resolve("src/main/java/placeholder"));
-        Files.writeString(tempDir.resolve("pom.xml"), pomContent);
-        Files.writeString(tempDir.resolve("src/main/java/placeholder/PlaceholderApplication.java"), javaCode);
-        Files.createDirectories(tempDir.resolve("META-INF"));
-        Files.writeString(tempDir.resolve("META-INF/MANIFEST.MF"), manifestContent);
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("pom.xml", pomContent);
+        entries.put("src/main/java/placeholder/PlaceholderApplication.java", javaCode);
+        entries.put("META-INF/MANIFEST.MF", manifestContent);
+        return entries;
     }
 
-    private void createNodeJsPlaceholder(Path tempDir, String appName) throws IOException {
+    private Map<String, String> nodeJsPlaceholder() {
         String packageJson = """
                 {
                   "name": "%s-placeholder",
@@ -117,7 +212,7 @@ public class BuildpackPlaceholderGenerator {
                     "node": ">=18.0.0"
                   }
                 }
-                """.formatted(appName);
+                """.formatted(PLACEHOLDER_NAME);
         
         String serverJs = """
                 const http = require('http');
@@ -131,13 +226,15 @@ public class BuildpackPlaceholderGenerator {
                 server.listen(port, () => {
                   console.log('Placeholder server running on port ' + port);
                 });
-                """.formatted(appName);
+                """.formatted(PLACEHOLDER_NAME);
         
-        Files.writeString(tempDir.resolve("package.json"), packageJson);
-        Files.writeString(tempDir.resolve("server.js"), serverJs);
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("package.json", packageJson);
+        entries.put("server.js", serverJs);
+        return entries;
     }
 
-    private void createPythonPlaceholder(Path tempDir, String appName) throws IOException {
+    private Map<String, String> pythonPlaceholder() {
         String requirementsTxt = """
                 Flask==2.3.0
                 gunicorn==20.1.0
@@ -156,21 +253,23 @@ public class BuildpackPlaceholderGenerator {
                 if __name__ == '__main__':
                     port = int(os.environ.get('PORT', 8080))
                     app.run(host='0.0.0.0', port=port)
-                """.formatted(appName);
+                """.formatted(PLACEHOLDER_NAME);
         
         String procfile = "web: gunicorn app:app";
         
-        Files.writeString(tempDir.resolve("requirements.txt"), requirementsTxt);
-        Files.writeString(tempDir.resolve("app.py"), appPy);
-        Files.writeString(tempDir.resolve("Procfile"), procfile);
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("requirements.txt", requirementsTxt);
+        entries.put("app.py", appPy);
+        entries.put("Procfile", procfile);
+        return entries;
     }
 
-    private void createGoPlaceholder(Path tempDir, String appName) throws IOException {
+    private Map<String, String> goPlaceholder() {
         String goMod = """
                 module %s-placeholder
                 
                 go 1.19
-                """.formatted(appName);
+                """.formatted(PLACEHOLDER_NAME);
         
         String mainGo = """
                 package main
@@ -194,13 +293,15 @@ public class BuildpackPlaceholderGenerator {
                     fmt.Printf("Placeholder server starting on port %%s\\n", port)
                     http.ListenAndServe(":"+port, nil)
                 }
-                """.formatted(appName);
+                """.formatted(PLACEHOLDER_NAME);
         
-        Files.writeString(tempDir.resolve("go.mod"), goMod);
-        Files.writeString(tempDir.resolve("main.go"), mainGo);
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("go.mod", goMod);
+        entries.put("main.go", mainGo);
+        return entries;
     }
 
-    private void createPhpPlaceholder(Path tempDir, String appName) throws IOException {
+    private Map<String, String> phpPlaceholder() {
         String composerJson = """
                 {
                     "name": "%s/placeholder",
@@ -208,20 +309,22 @@ public class BuildpackPlaceholderGenerator {
                         "php": ">=8.1"
                     }
                 }
-                """.formatted(appName);
+                """.formatted(PLACEHOLDER_NAME);
         
         String indexPhp = """
                 <?php
                 echo "<h1>Placeholder for %s</h1>";
                 echo "<p>This app will be replaced with real source.</p>";
                 ?>
-                """.formatted(appName);
+                """.formatted(PLACEHOLDER_NAME);
         
-        Files.writeString(tempDir.resolve("composer.json"), composerJson);
-        Files.writeString(tempDir.resolve("index.php"), indexPhp);
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("composer.json", composerJson);
+        entries.put("index.php", indexPhp);
+        return entries;
     }
 
-    private void createRubyPlaceholder(Path tempDir, String appName) throws IOException {
+    private Map<String, String> rubyPlaceholder() {
         String gemfile = """
                 source 'https://rubygems.org'
                 ruby '3.1.0'
@@ -236,19 +339,21 @@ public class BuildpackPlaceholderGenerator {
                 get '/' do
                   "<h1>Placeholder for %s</h1><p>This app will be replaced with real source.</p>"
                 end
-                """.formatted(appName);
+                """.formatted(PLACEHOLDER_NAME);
         
         String configRu = """
                 require './app'
                 run Sinatra::Application
                 """;
         
-        Files.writeString(tempDir.resolve("Gemfile"), gemfile);
-        Files.writeString(tempDir.resolve("app.rb"), appRb);
-        Files.writeString(tempDir.resolve("config.ru"), configRu);
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("Gemfile", gemfile);
+        entries.put("app.rb", appRb);
+        entries.put("config.ru", configRu);
+        return entries;
     }
 
-    private void createStaticPlaceholder(Path tempDir, String appName) throws IOException {
+    private Map<String, String> staticPlaceholder() {
         String indexHtml = """
                 <!DOCTYPE html>
                 <html>
@@ -258,11 +363,13 @@ public class BuildpackPlaceholderGenerator {
                     <p>This app will be replaced with real source.</p>
                 </body>
                 </html>
-                """.formatted(appName, appName);
+                """.formatted(PLACEHOLDER_NAME, PLACEHOLDER_NAME);
         
         String staticfile = "root: .";
         
-        Files.writeString(tempDir.resolve("index.html"), indexHtml);
-        Files.writeString(tempDir.resolve("Staticfile"), staticfile);
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("index.html", indexHtml);
+        entries.put("Staticfile", staticfile);
+        return entries;
     }
 }
\ No newline at end of file
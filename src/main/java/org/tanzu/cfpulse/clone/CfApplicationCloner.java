@@ -2,12 +2,24 @@ package org.tanzu.cfpulse.clone;
 
 import org.springaicommunity.mcp.annotation.McpTool;
 import org.springaicommunity.mcp.annotation.McpToolParam;
+import org.springaicommunity.mcp.context.McpSyncRequestContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.tanzu.cfpulse.cf.CfBaseService;
 import org.tanzu.cfpulse.cf.CloudFoundryOperationsFactory;
+import org.tanzu.cfpulse.cf.JobRegistry;
+import org.tanzu.cfpulse.cf.SpaceListingCache;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.BiFunction;
 
 /**
  * Application cloning service that creates buildpack-specific placeholders to ensure consistent deployments.
@@ -22,73 +34,179 @@ import java.time.Duration;
 @Service
 public class CfApplicationCloner extends CfBaseService {
 
+    private static final Logger logger = LoggerFactory.getLogger(CfApplicationCloner.class);
+
     private final ApplicationConfigService configService;
     private final BuildpackPlaceholderGenerator placeholderGenerator;
     private final ApplicationDeploymentService deploymentService;
+    private final SpaceListingCache listingCache;
+    private final JobRegistry jobRegistry;
+    private final int defaultParallelism;
+    private final int maxParallelism;
 
     public CfApplicationCloner(CloudFoundryOperationsFactory operationsFactory,
                               ApplicationConfigService configService,
                               BuildpackPlaceholderGenerator placeholderGenerator,
-                              ApplicationDeploymentService deploymentService) {
+                              ApplicationDeploymentService deploymentService,
+                              SpaceListingCache listingCache,
+                              JobRegistry jobRegistry,
+                              @Value("${cf.clone.bulk.parallelism:4}") int defaultParallelism,
+                              @Value("${cf.clone.bulk.max-parallelism:8}") int maxParallelism) {
         super(operationsFactory);
         this.configService = configService;
         this.placeholderGenerator = placeholderGenerator;
         this.deploymentService = deploymentService;
+        this.listingCache = listingCache;
+        this.jobRegistry = jobRegistry;
+        this.defaultParallelism = defaultParallelism;
+        this.maxParallelism = maxParallelism;
     }
 
     /**
      * Clone an existing Cloud Foundry application by creating a buildpack-specific placeholder
      */
-    @McpTool(description = "Clone an existing Cloud Foundry application to create a copy with a new name. Uses buildpack-specific placeholders to ensure consistent deployments.")
-    public void cloneApp(
+    @McpTool(description = "Clone an existing Cloud Foundry application to create a copy with a new name. Uses buildpack-specific placeholders to ensure consistent deployments." + ASYNC)
+    public JobRegistry.JobStatus cloneApp(
             @McpToolParam(description = "Source application name") String sourceApp,
             @McpToolParam(description = "Target application name") String targetApp,
             @McpToolParam(description = "Organization name (optional)", required = false) String organization,
-            @McpToolParam(description = "Space name (optional)", required = false) String space) {
-        
-        System.out.println("Starting clone operation: " + sourceApp + " -> " + targetApp);
+            @McpToolParam(description = "Space name (optional)", required = false) String space,
+            @McpToolParam(description = ASYNC_PARAM, required = false) Boolean async) {
         
-        try {
+        JobRegistry.Work work = stage -> {
+            logger.info("Starting clone operation: {} -> {}", sourceApp, targetApp);
+            
+            try {
+                clone(sourceApp, targetApp, organization, space, cloneStage -> stage.accept(cloneStage.name()))
+                        .block(); // Block until the clone has finished, on the caller's or the job's thread
+                
+                logger.info("Clone operation completed successfully: {} -> {}", sourceApp, targetApp);
+                return null;
+                
+            } catch (Exception e) {
+                logger.error("Clone operation failed: {} -> {}", sourceApp, targetApp, e);
+                throw new RuntimeException("Failed to clone application: " + sourceApp + " -> " + targetApp, e);
+            }
+        };
+        return Boolean.TRUE.equals(async)
+                ? jobRegistry.submit(getClass(), "cloneApp", targetApp, work)
+                : jobRegistry.run("cloneApp", targetApp, work);
+    }
+
+    /**
+     * Clone several applications concurrently. A failing clone is reported in its result and does not
+     * abort the others.
+     */
+    @McpTool(description = "Clone several existing Cloud Foundry applications at once. Clones run concurrently up to the given parallelism, progress is reported per application, and one failing clone does not stop the others. Returns the outcome, last stage reached and duration of each clone.")
+    public List<CloneResult> cloneApps(
+            @McpToolParam(description = "Source and target application names for each clone") List<CloneRequest> clones,
+            @McpToolParam(description = "Maximum number of clones to run at the same time (optional)", required = false) Integer parallelism,
+            @McpToolParam(description = "Organization name (optional)", required = false) String organization,
+            @McpToolParam(description = "Space name (optional)", required = false) String space,
+            McpSyncRequestContext context) {
+
+        int concurrency = parallelism != null && parallelism > 0 ? Math.min(parallelism, maxParallelism) : defaultParallelism;
+        logger.info("Starting bulk clone of {} applications with parallelism {}", clones.size(), concurrency);
+
+        CloneResult[] results = new CloneResult[clones.size()];
+        int finished = 0;
+        // Progress is consumed on the calling thread so notifications are never sent from a reactor I/O thread
+        for (CloneProgress progress : Flux.range(0, clones.size())
+                .flatMap(index -> cloneWithProgress(index, clones.get(index), organization, space), concurrency)
+                .toIterable()) {
+            CloneResult result = progress.result();
+            results[progress.index()] = result;
+            if (result.status() != CloneStatus.RUNNING) {
+                finished++;
+            }
+            logger.info("Bulk clone {} -> {}: {} at {}", result.sourceApp(), result.targetApp(), result.status(), result.stage());
+
+            int completed = finished;
+            context.progress(spec -> spec.progress(completed)
+                    .total(clones.size())
+                    .message(result.targetApp() + ": " + result.stage() + " (" + result.status() + ")"));
+        }
+
+        return List.of(results);
+    }
+
+    private Flux<CloneProgress> cloneWithProgress(int index, CloneRequest request, String organization, String space) {
+        return Flux.create(sink -> {
+            long start = System.nanoTime();
+            AtomicReference<CloneStage> currentStage = new AtomicReference<>(CloneStage.READING_SOURCE);
+            BiFunction<CloneStatus, String, CloneProgress> snapshot = (status, error) -> new CloneProgress(index,
+                    new CloneResult(request.sourceApp(), request.targetApp(), status, currentStage.get(),
+                            Duration.ofNanos(System.nanoTime() - start).toMillis(), error));
+
+            Disposable subscription = clone(request.sourceApp(), request.targetApp(), organization, space, stage -> {
+                currentStage.set(stage);
+                sink.next(snapshot.apply(CloneStatus.RUNNING, null));
+            }).subscribe(
+                    null,
+                    error -> {
+                        sink.next(snapshot.apply(CloneStatus.FAILED, error.getMessage()));
+                        sink.complete();
+                    },
+                    () -> {
+                        currentStage.set(CloneStage.COMPLETED);
+                        sink.next(snapshot.apply(CloneStatus.SUCCEEDED, null));
+                        sink.complete();
+                    });
+            sink.onCancel(subscription);
+        });
+    }
+
+    private Mono<Void> clone(String sourceApp, String targetApp, String organization, String space,
+                             Consumer<CloneStage> onStage) {
+        return Mono.defer(() -> {
+            onStage.accept(CloneStage.READING_SOURCE);
             // First get both source app config AND buildpack info
-            Mono.zip(
+            return Mono.zip(
                 configService.getSourceAppConfig(sourceApp, organization, space),
                 configService.getBuildpackInfo(sourceApp, organization, space)
-            )
-                    .flatMap(tuple -> {
-                        ApplicationConfigService.AppConfig config = tuple.getT1();
-                        String sourceBuildpack = tuple.getT2();
-                        
-                        System.out.println("Retrieved source app info: memory=" + config.memoryLimit() + 
-                                         ", disk=" + config.diskQuota() + ", instances=" + config.instances() +
-                                         ", buildpack=" + sourceBuildpack + 
-                                         ", env vars=" + config.environmentVariables().size());
-                        
-                        return Mono.fromCallable(() -> placeholderGenerator.createPlaceholder(targetApp, sourceBuildpack))
-                                .flatMap(placeholderPath -> {
-                                    System.out.println("Created buildpack placeholder for: " + sourceBuildpack);
-                                    
-                                    return deploymentService.deployPlaceholderWithSourceBuildpack(targetApp, placeholderPath, sourceBuildpack, organization, space, config)
-                                            .doOnSuccess(v -> System.out.println("Placeholder deployed with matching buildpack: " + sourceBuildpack))
-                                            .then(
-                                                    // Step 2: Copy application source (buildpack already matches)
-                                                    deploymentService.copySourceWithBuildpackVerification(sourceApp, targetApp, sourceBuildpack, organization, space, config)
-                                                            .doOnSuccess(v -> System.out.println("Source copy completed with buildpack verification"))
-                                            )
-                                            .doFinally(signal -> {
-                                                System.out.println("Cleaning up temporary files...");
-                                                deploymentService.cleanup(placeholderPath);
-                                            });
-                                });
-                    })
-                    .timeout(Duration.ofMinutes(10)) // 10 minute timeout for the entire operation
-                    .block(); // Block to make it synchronous for MCP
-            
-            System.out.println("Clone operation completed successfully: " + sourceApp + " -> " + targetApp);
-            
-        } catch (Exception e) {
-            System.err.println("Clone operation failed: " + e.getMessage());
-            e.printStackTrace();
-            throw new RuntimeException("Failed to clone application: " + sourceApp + " -> " + targetApp, e);
-        }
+            );
+        })
+                .flatMap(tuple -> {
+                    ApplicationConfigService.AppConfig config = tuple.getT1();
+                    String sourceBuildpack = tuple.getT2();
+                    
+                    logger.info("Retrieved source app info: memory={}, disk={}, instances={}, buildpack={}, env vars={}",
+                            config.memoryLimit(), config.diskQuota(), config.instances(), sourceBuildpack,
+                            config.environmentVariables().size());
+                    
+                    return Mono.fromCallable(() -> placeholderGenerator.placeholderFor(sourceBuildpack))
+                            .flatMap(placeholderPath -> {
+                                logger.info("Using buildpack placeholder for: {}", sourceBuildpack);
+                                onStage.accept(CloneStage.DEPLOYING_PLACEHOLDER);
+                                
+                                return deploymentService.deployPlaceholderWithSourceBuildpack(targetApp, placeholderPath, sourceBuildpack, organization, space, config)
+                                        .doOnSuccess(v -> logger.info("Placeholder deployed with matching buildpack: {}", sourceBuildpack))
+                                        .then(Mono.defer(() -> {
+                                            // Step 2: Copy application source (buildpack already matches)
+                                            onStage.accept(CloneStage.COPYING_SOURCE);
+                                            return deploymentService.copySourceWithBuildpackVerification(sourceApp, targetApp, sourceBuildpack, organization, space, config)
+                                                    .doOnSuccess(v -> logger.info("Source copy completed with buildpack verification"));
+                                        }));
+                            });
+                })
+                .timeout(Duration.ofMinutes(10)) // 10 minute timeout for the entire operation
+                .doOnTerminate(() -> listingCache.invalidate(organization, space));
     }
-}
\ No newline at end of file
+
+    /**
+     * Source and target application names for a single clone
+     */
+    public record CloneRequest(String sourceApp, String targetApp) {}
+
+    /**
+     * Outcome of a single clone within a bulk clone
+     */
+    public record CloneResult(String sourceApp, String targetApp, CloneStatus status, CloneStage stage,
+                              long durationMillis, String error) {}
+
+    public enum CloneStatus { RUNNING, SUCCEEDED, FAILED }
+
+    public enum CloneStage { READING_SOURCE, DEPLOYING_PLACEHOLDER, COPYING_SOURCE, COMPLETED }
+
+    private record CloneProgress(int index, CloneResult result) {}
+}